@@ -0,0 +1,38 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic deal fixtures shared by the benchmarks.
+ */
+final class BenchmarkDeals {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF", "MAD", "CAD", "AUD"};
+    private static final LocalDateTime BASE_TIMESTAMP = LocalDateTime.now().withNano(0).minusDays(1);
+
+    private BenchmarkDeals() {
+    }
+
+    static List<FxDealRequest> generate(int count, String idPrefix) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<FxDealRequest> deals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int from = random.nextInt(CURRENCIES.length);
+            int to = (from + 1 + random.nextInt(CURRENCIES.length - 1)) % CURRENCIES.length;
+            deals.add(FxDealRequest.builder()
+                    .dealUniqueId(idPrefix + i)
+                    .fromCurrencyIsoCode(CURRENCIES[from])
+                    .toCurrencyIsoCode(CURRENCIES[to])
+                    .dealTimestamp(BASE_TIMESTAMP.minusSeconds(random.nextInt(86_400)))
+                    .dealAmount(BigDecimal.valueOf(random.nextLong(1, 100_000_000L), 4))
+                    .build());
+        }
+        return deals;
+    }
+}
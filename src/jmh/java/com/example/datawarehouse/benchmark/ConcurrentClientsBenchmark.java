@@ -0,0 +1,118 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.DatawarehouseApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent HTTP clients against the running application: many clients posting
+ * imports while a few others read single deals. With {@code importWorkers=0} imports
+ * run on the servlet threads, as before imports were moved to their own pool; with a
+ * pool, servlet threads are released while imports wait on the database. The servlet
+ * pool is kept small so that a burst of imports can exhaust it. Admission is off, so
+ * both setups take every import, and an import that is not answered with 2xx fails
+ * the run instead of counting as an operation. Docker is required.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentClientsBenchmark {
+
+    private static final int CHUNK = 500;
+    private static final int SERVLET_THREADS = 32;
+    private static final String SEEDED_DEAL = "SEED-0";
+
+    @Param({"0", "8"})
+    public int importWorkers;
+
+    private final AtomicLong nextImport = new AtomicLong();
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private ObjectMapper objectMapper;
+    private URI importUri;
+    private URI dealUri;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(DatawarehouseApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + SERVLET_THREADS,
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "fxdeals.import-requests.workers=" + importWorkers,
+                        "fxdeals.import-requests.queue-capacity=256",
+                        "fxdeals.admission.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/deals";
+        importUri = URI.create(baseUrl + "/import");
+        dealUri = URI.create(baseUrl + "/" + SEEDED_DEAL);
+
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        post(objectMapper.writeValueAsBytes(BenchmarkDeals.generate(CHUNK, "SEED-")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(64)
+    public int importChunk() throws IOException, InterruptedException {
+        String prefix = "LOAD-" + nextImport.getAndIncrement() + "-";
+        return post(objectMapper.writeValueAsBytes(BenchmarkDeals.generate(CHUNK, prefix)));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public void readDeal(Blackhole blackhole) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(dealUri).GET().build();
+        blackhole.consume(client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode());
+    }
+
+    private int post(byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(importUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        // A quick 429 or 503 would otherwise be counted as an import
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Import answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.statusCode();
+    }
+}
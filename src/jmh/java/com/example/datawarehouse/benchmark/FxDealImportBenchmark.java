@@ -0,0 +1,78 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.DatawarehouseApplication;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.service.FxDealService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link FxDealService#importDeals(List)} against a PostgreSQL Testcontainer.
+ * Each iteration starts from empty tables and uses fresh deal IDs, so every deal is inserted.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FxDealImportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int deals;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private FxDealService service;
+    private JdbcTemplate jdbcTemplate;
+
+    private int iteration;
+    private List<FxDealRequest> requests;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(DatawarehouseApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.datawarehouse=ERROR")
+                .run();
+        service = context.getBean(FxDealService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareIteration() {
+        jdbcTemplate.execute("TRUNCATE fx_deals, fx_deal_keys, fx_deal_rollups");
+        requests = BenchmarkDeals.generate(deals, "BENCH-" + iteration++ + "-");
+    }
+
+    @Benchmark
+    public ImportSummaryResponse importDeals() {
+        return service.importDeals(requests);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+}
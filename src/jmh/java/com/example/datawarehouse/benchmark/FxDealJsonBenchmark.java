@@ -0,0 +1,59 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson deserialisation of request arrays, as bound by {@code POST /import} (whole list)
+ * and {@code POST /import/stream} (element by element).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxDealJsonBenchmark {
+
+    @Param({"1000", "100000"})
+    public int deals;
+
+    private ObjectReader listReader;
+    private ObjectReader elementReader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        listReader = objectMapper.readerFor(new TypeReference<List<FxDealRequest>>() { });
+        elementReader = objectMapper.readerFor(FxDealRequest.class);
+        payload = objectMapper.writeValueAsBytes(BenchmarkDeals.generate(deals, "JSON-"));
+    }
+
+    @Benchmark
+    public List<FxDealRequest> readList() throws IOException {
+        return listReader.readValue(payload);
+    }
+
+    @Benchmark
+    public void readStreaming(Blackhole blackhole) throws IOException {
+        try (MappingIterator<FxDealRequest> iterator = elementReader.readValues(payload)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.mapper.FxDealMapperImpl;
+import com.example.datawarehouse.model.FxDeal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct conversions on the import (request to entity) and read (entity to response) paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxDealMapperBenchmark {
+
+    private final FxDealMapper mapper = new FxDealMapperImpl();
+
+    private FxDealRequest request;
+    private FxDeal entity;
+
+    @Setup
+    public void setUp() {
+        List<FxDealRequest> deals = BenchmarkDeals.generate(1, "MAP-");
+        request = deals.get(0);
+        entity = mapper.toEntity(request);
+        entity.setId(1L);
+    }
+
+    @Benchmark
+    public FxDeal toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public FxDealResponse toResponse() {
+        return mapper.toResponse(entity);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.mapper.FxDealMapperImpl;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.util.FxDealBinaryFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload to persistence batch: JSON (bind, validate, map) against the binary
+ * format, which decodes and validates straight into entities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxDealPayloadBenchmark {
+
+    @Param({"1000", "100000"})
+    public int deals;
+
+    private final FxDealMapper mapper = new FxDealMapperImpl();
+
+    private ObjectReader listReader;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private byte[] jsonPayload;
+    private byte[] binaryPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        listReader = objectMapper.readerFor(new TypeReference<List<FxDealRequest>>() { });
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        List<FxDealRequest> requests = BenchmarkDeals.generate(deals, "PAYLOAD-");
+        jsonPayload = objectMapper.writeValueAsBytes(requests);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FxDealBinaryFormat.Writer writer = new FxDealBinaryFormat.Writer(out)) {
+            for (FxDealRequest request : requests) {
+                writer.write(request.getDealUniqueId(), request.getFromCurrencyIsoCode(),
+                        request.getToCurrencyIsoCode(), request.getDealTimestamp(), request.getDealAmount());
+            }
+        }
+        binaryPayload = out.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public void json(Blackhole blackhole) throws IOException {
+        List<FxDealRequest> requests = listReader.readValue(jsonPayload);
+        for (FxDealRequest request : requests) {
+            blackhole.consume(validator.validate(request));
+            blackhole.consume(mapper.toEntity(request));
+        }
+    }
+
+    @Benchmark
+    public void binary(Blackhole blackhole) throws IOException {
+        FxDealBinaryFormat.Reader reader = new FxDealBinaryFormat.Reader(new ByteArrayInputStream(binaryPayload));
+        for (FxDeal deal = reader.next(); deal != null; deal = reader.next()) {
+            blackhole.consume(deal);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost per deal, for a valid request and one that breaks every constraint:
+ * reflective Bean Validation against the hand-written {@link FxDealRequestValidator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxDealValidationBenchmark {
+
+    private final FxDealRequestValidator fastValidator = new FxDealRequestValidator();
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private FxDealRequest valid;
+    private FxDealRequest invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = BenchmarkDeals.generate(1, "VAL-").get(0);
+        invalid = FxDealRequest.builder()
+                .dealUniqueId(" ")
+                .fromCurrencyIsoCode("usd")
+                .toCurrencyIsoCode("EURO")
+                .dealAmount(new BigDecimal("-1.00001"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FxDealRequest>> validDeal() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<FxDealRequest>> invalidDeal() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public List<String> fastValidDeal() {
+        return fastValidator.validate(valid);
+    }
+
+    @Benchmark
+    public List<String> fastInvalidDeal() {
+        return fastValidator.validate(invalid);
+    }
+}
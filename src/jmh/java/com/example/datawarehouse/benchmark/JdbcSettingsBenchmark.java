@@ -0,0 +1,133 @@
+package com.example.datawarehouse.benchmark;
+
+import com.example.datawarehouse.DatawarehouseApplication;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.service.FxDealService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Load test for the JDBC settings of the {@code prod} profile: the application runs
+ * with that profile against a PostgreSQL Testcontainer, keeping the driver options of
+ * the profile's URL. The {@code setting} parameter runs the shipped configuration as
+ * is ({@code prod}), or changes exactly one setting: a driver option of the URL, the
+ * pool size or the fetch size. Each trial starts from an empty database.
+ * <p>
+ * {@code importChunk} has concurrent importers compete for the pool, one chunk of
+ * {@value #CHUNK} deals per operation; {@code streamAll} reads back {@value #SEEDED} deals
+ * through the streaming endpoint's cursor. Docker is required.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JdbcSettingsBenchmark {
+
+    private static final int CHUNK = 500;
+    private static final int SEEDED = 100_000;
+
+    private static final String POOL_SIZE = "maximum-pool-size";
+    private static final String FETCH_SIZE = "fetch_size";
+
+    @Param({"prod",
+            "reWriteBatchedInserts=false", "prepareThreshold=5",
+            "preparedStatementCacheQueries=256", "preparedStatementCacheSizeMiB=5",
+            POOL_SIZE + "=17", POOL_SIZE + "=32",
+            FETCH_SIZE + "=100", FETCH_SIZE + "=10000"})
+    public String setting;
+
+    private final AtomicLong nextChunk = new AtomicLong();
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private FxDealService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        Map<String, String> driverOptions = prodDriverOptions();
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.username=" + postgres.getUsername(),
+                "spring.datasource.password=" + postgres.getPassword(),
+                "fxdeals.import.batch-size=" + CHUNK,
+                "fxdeals.admission.adaptive-batch-size=false",
+                "logging.level.root=WARN"));
+        if (!setting.equals("prod")) {
+            String name = setting.substring(0, setting.indexOf('='));
+            String value = setting.substring(name.length() + 1);
+            if (name.equals(POOL_SIZE)) {
+                properties.add("spring.datasource.hikari.maximum-pool-size=" + value);
+                properties.add("spring.datasource.hikari.minimum-idle=" + value);
+            } else if (name.equals(FETCH_SIZE)) {
+                properties.add("spring.jpa.properties.hibernate.jdbc.fetch_size=" + value);
+            } else if (driverOptions.replace(name, value) == null) {
+                throw new IllegalArgumentException(name + " is not set in the prod JDBC URL");
+            }
+        }
+        String url = postgres.getJdbcUrl();
+        properties.add("spring.datasource.url=" + url + (url.contains("?") ? "&" : "?")
+                + driverOptions.entrySet().stream()
+                        .map(option -> option.getKey() + "=" + option.getValue())
+                        .collect(Collectors.joining("&")));
+
+        context = new SpringApplicationBuilder(DatawarehouseApplication.class)
+                .profiles("prod")
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+        service = context.getBean(FxDealService.class);
+        service.importDeals(BenchmarkDeals.generate(SEEDED, "SEED-"));
+    }
+
+    // The driver options of the prod profile's URL, whose host and database only fit docker-compose
+    private static Map<String, String> prodDriverOptions() throws IOException {
+        String url = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-prod.properties"))
+                .getProperty("spring.datasource.url");
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String option : url.substring(url.indexOf('?') + 1).split("&")) {
+            int separator = option.indexOf('=');
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+        return options;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    // As many importers as the prod profile's writer threads
+    @Benchmark
+    @Threads(17)
+    public void importChunk(Blackhole blackhole) {
+        List<FxDealRequest> chunk = BenchmarkDeals.generate(CHUNK, "LOAD-" + nextChunk.getAndIncrement() + "-");
+        blackhole.consume(service.importDeals(chunk));
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(SEEDED)
+    public void streamAll(Blackhole blackhole) {
+        service.streamAllDeals(blackhole::consume);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.datawarehouse.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether synchronous imports are admitted against adaptive concurrency limits.
+     * When disabled, only the import request pool and its queue bound them.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of deals from which a JSON import is admitted in the bulk lane.
+     * Streaming and binary imports, whose size is unknown upfront, always are.
+     */
+    private int bulkThreshold = 5_000;
+
+    /**
+     * Concurrency limits of the lane for imports below the bulk threshold.
+     */
+    private Lane small = new Lane(8, 2, 16);
+
+    /**
+     * Concurrency limits of the lane for bulk imports.
+     */
+    private Lane bulk = new Lane(2, 1, 4);
+
+    /**
+     * How much slower than the fastest chunk seen, per deal, a chunk may commit
+     * before the limits are lowered.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Retry-After sent with the 429 of an import that finds its lane full.
+     */
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    /**
+     * Whether the batched import path tunes its chunk size from measured throughput,
+     * starting at {@code fxdeals.import.batch-size}.
+     */
+    private boolean adaptiveBatchSize = true;
+
+    /**
+     * Smallest chunk size the tuning may pick. Smaller chunks are not timed for
+     * the lane limits.
+     */
+    private int minBatchSize = 100;
+
+    /**
+     * Largest chunk size the tuning may pick.
+     */
+    private int maxBatchSize = 5_000;
+
+    /**
+     * Number of chunks whose throughput is measured before each chunk size change.
+     */
+    private int tuningWindow = 8;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Lane {
+
+        /**
+         * Concurrent imports allowed before any latency is measured.
+         */
+        private int initialLimit;
+
+        /**
+         * Floor the limit is never lowered below.
+         */
+        private int minLimit;
+
+        /**
+         * Ceiling the limit is never raised above.
+         */
+        private int maxLimit;
+    }
+}
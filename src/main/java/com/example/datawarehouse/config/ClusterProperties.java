@@ -0,0 +1,56 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.cluster")
+public class ClusterProperties {
+
+    /**
+     * Whether imports are split by deal ID and forwarded to the node owning each ID.
+     */
+    private boolean enabled = false;
+
+    /**
+     * ID of this node; must be listed in the members file.
+     */
+    private String nodeId;
+
+    /**
+     * JSON file listing every node of the cluster. All nodes must use the same file.
+     */
+    private Path membersFile = Path.of("cluster.json");
+
+    /**
+     * Secret shared by all nodes and sent with every forwarded import. A request
+     * claiming to be forwarded by another node is only imported without routing and
+     * admission when it carries this secret. Required when clustering is enabled.
+     */
+    private String secret;
+
+    /**
+     * Maximum number of deals forwarded to another node in one request. Keep it
+     * below {@code fxdeals.admission.bulk-threshold}.
+     */
+    private int forwardBatchSize = 2000;
+
+    /**
+     * Number of forwards allowed to wait for a thread before new imports are
+     * rejected with 429. The pool has one thread per other node for each import worker.
+     */
+    private int forwardQueueCapacity = 64;
+
+    /**
+     * Timeout for connecting to another node.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Timeout for another node to answer a forwarded batch.
+     */
+    private Duration forwardTimeout = Duration.ofSeconds(60);
+}
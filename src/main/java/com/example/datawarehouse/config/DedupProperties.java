@@ -0,0 +1,30 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.dedup")
+public class DedupProperties {
+
+    /**
+     * Whether deal IDs are checked against the in-memory filter before querying the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of deal IDs the filter is sized for. Raised to twice the stored count at startup if lower.
+     */
+    private long expectedInsertions = 10_000_000;
+
+    /**
+     * Target false-positive probability once {@code expectedInsertions} IDs are stored.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Upper bound on the filter's bit array; caps the size computed from the two settings above.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+}
@@ -0,0 +1,15 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.export")
+public class ExportProperties {
+
+    /**
+     * Number of rows read per query during an export. Each page is a single statement,
+     * so no transaction stays open for the length of the export.
+     */
+    private int pageSize = 10_000;
+}
@@ -0,0 +1,55 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.feed")
+public class FeedProperties {
+
+    /**
+     * Whether committed deals are published to {@code GET /api/deals/feed} subscribers.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of most recent deals kept for subscribers resuming after a disconnect.
+     */
+    private int historySize = 10_000;
+
+    /**
+     * Number of deals buffered for one subscriber that is slower than the imports.
+     */
+    private int bufferSize = 1_000;
+
+    /**
+     * What happens to a subscriber whose buffer is full.
+     */
+    private OverflowPolicy overflow = OverflowPolicy.DISCONNECT;
+
+    /**
+     * Number of threads sending buffered deals to subscribers, shared by all of them.
+     */
+    private int senderThreads = 8;
+
+    /**
+     * How long a send to one subscriber may stay blocked before it gets no more deals.
+     * Checked with the heartbeat, every 15 seconds. Its sender thread stays blocked
+     * until the server's write timeout ({@code server.tomcat.connection-timeout} on
+     * Tomcat) fails the write, so this only matters when it is the shorter of the two.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    public enum OverflowPolicy {
+        /**
+         * Close the subscription; the client reconnects and resumes from the history.
+         */
+        DISCONNECT,
+        /**
+         * Discard the oldest buffered deals and keep the subscription open.
+         */
+        DROP_OLDEST
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Total weight of stored import summaries. A summary weighs one plus its number of
+     * errors, so a few summaries with large error reports cannot fill the heap.
+     */
+    private long capacity = 1_000_000;
+
+    /**
+     * Number of skipped-deal errors kept with a stored summary. A replay returns the
+     * full counts but only this many errors, and the number left out as
+     * {@code omittedErrors}. Keep it below
+     * {@code fxdeals.import.max-errors-in-memory} so that storing a summary never
+     * reads its spilled errors back from disk.
+     */
+    private int maxStoredErrors = 1_000;
+
+    /**
+     * How long a completed import summary can be replayed under its Idempotency-Key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+}
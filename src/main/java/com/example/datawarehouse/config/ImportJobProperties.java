@@ -0,0 +1,31 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.jobs")
+public class ImportJobProperties {
+
+    /**
+     * Number of import jobs running concurrently.
+     */
+    private int workers = 4;
+
+    /**
+     * Number of submitted jobs allowed to wait for a worker before new ones are rejected.
+     */
+    private int queueCapacity = 16;
+
+    /**
+     * How long a finished job's summary stays available for polling.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * Maximum number of finished jobs kept, oldest evicted first.
+     */
+    private int maxRetained = 1000;
+}
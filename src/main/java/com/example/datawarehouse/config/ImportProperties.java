@@ -0,0 +1,33 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.import")
+public class ImportProperties {
+
+    /**
+     * Number of deals written per transaction by the batched import path.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Number of partitions written concurrently by the parallel import mode. Each one
+     * holds a database connection while it writes, so keep it below the pool size.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Number of deals sent per COPY by the bulk-load import mode. Each chunk is
+     * staged, merged and committed on its own.
+     */
+    private int copyChunkSize = 50_000;
+
+    /**
+     * Number of skipped-deal errors a streaming import keeps in memory for its
+     * summary. Later ones are written to a temporary file and read back when the
+     * response is sent.
+     */
+    private int maxErrorsInMemory = 10_000;
+}
@@ -0,0 +1,31 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.import-requests")
+public class ImportRequestProperties {
+
+    /**
+     * Number of synchronous import requests processed concurrently, off the servlet
+     * threads. Keep it close to the database pool size. 0 processes each import on
+     * the request thread that received it.
+     */
+    private int workers = 8;
+
+    /**
+     * Number of import requests allowed to wait for a worker before new ones are
+     * rejected with 429.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * How long a client waits for its import summary. A JSON import keeps running if
+     * the request times out; streaming and binary imports read their body from the
+     * request, so they stop there, keeping the chunks committed before.
+     */
+    private Duration timeout = Duration.ofMinutes(10);
+}
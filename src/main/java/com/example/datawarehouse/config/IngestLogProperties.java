@@ -0,0 +1,44 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.ingest-log")
+public class IngestLogProperties {
+
+    /**
+     * Whether {@code POST /api/deals/import/ingest} accepts deals into the local log.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the log segments and the drain checkpoint. Must be on local,
+     * persistent storage.
+     */
+    private Path directory = Path.of("data", "ingest-log");
+
+    /**
+     * Size of each memory-mapped segment file.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Maximum number of deals written to the database in one drain transaction.
+     */
+    private int drainBatchSize = 5000;
+
+    /**
+     * How long the drainer waits before retrying a batch the database rejected.
+     */
+    private Duration retryDelay = Duration.ofSeconds(5);
+
+    /**
+     * How often an idle drainer checks the log, in case it missed a wake-up.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+}
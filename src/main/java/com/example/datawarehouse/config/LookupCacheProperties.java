@@ -0,0 +1,22 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.lookup-cache")
+public class LookupCacheProperties {
+
+    /**
+     * Maximum number of deal IDs cached, found or not. Least useful entries are evicted first.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long an ID that was not found stays cached. Imports clear it as soon as they
+     * commit; the expiry bounds staleness for rows written by another instance.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+}
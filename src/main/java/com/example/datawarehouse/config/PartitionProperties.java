@@ -0,0 +1,30 @@
+package com.example.datawarehouse.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fxdeals.partitioning")
+public class PartitionProperties {
+
+    /**
+     * Whether monthly partitions of fx_deals are created and detached automatically.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of months ahead of the current one for which partitions are kept ready.
+     */
+    private int premakeMonths = 3;
+
+    /**
+     * Number of past months for which partitions are created, so historical deals do
+     * not pile up in the default partition.
+     */
+    private int backfillMonths = 12;
+
+    /**
+     * Partitions entirely older than this many months are detached; 0 keeps every partition.
+     */
+    private int retentionMonths = 0;
+}
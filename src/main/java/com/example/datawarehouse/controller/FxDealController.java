@@ -1,16 +1,66 @@
 package com.example.datawarehouse.controller;
 
+import com.example.datawarehouse.dto.request.DealSearchRequest;
 import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.DealLookupResponse;
+import com.example.datawarehouse.dto.response.DealPageResponse;
+import com.example.datawarehouse.dto.response.DealSearchResponse;
 import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.dto.response.ImportJobResponse;
 import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.dto.response.IngestAckResponse;
+import com.example.datawarehouse.dto.response.PairStatsResponse;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.service.ClusterClient;
+import com.example.datawarehouse.service.ClusterImportService;
+import com.example.datawarehouse.service.DealExportService;
+import com.example.datawarehouse.service.DealFeed;
+import com.example.datawarehouse.service.DealSearchService;
+import com.example.datawarehouse.service.DealStatsService;
+import com.example.datawarehouse.service.FxDealBinaryImporter;
 import com.example.datawarehouse.service.FxDealService;
-import jakarta.validation.Valid;
+import com.example.datawarehouse.service.FxDealStreamImporter;
+import com.example.datawarehouse.service.IdempotencyStore;
+import com.example.datawarehouse.service.ImportAdmission;
+import com.example.datawarehouse.service.ImportJobService;
+import com.example.datawarehouse.service.ImportRequestExecutor;
+import com.example.datawarehouse.service.IngestService;
+import com.example.datawarehouse.service.ParallelImportService;
+import com.example.datawarehouse.util.FxDealBinaryFormat;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/deals")
@@ -18,27 +68,383 @@ import java.util.List;
 @Slf4j
 public class FxDealController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final FxDealService service;
+    private final FxDealStreamImporter streamImporter;
+    private final FxDealBinaryImporter binaryImporter;
+    private final ImportJobService importJobService;
+    private final ParallelImportService parallelImportService;
+    private final DealStatsService statsService;
+    private final DealSearchService searchService;
+    private final DealExportService exportService;
+    private final DealFeed dealFeed;
+    private final IdempotencyStore idempotencyStore;
+    private final ImportRequestExecutor importRequestExecutor;
+    private final ImportAdmission importAdmission;
+    private final IngestService ingestService;
+    private final ClusterImportService clusterImportService;
+    private final FxDealRequestValidator validator;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/import")
-    public ResponseEntity<ImportSummaryResponse> importDeals(
-            @Valid @RequestBody List<@Valid FxDealRequest> requests) {
+    public DeferredResult<ResponseEntity<ImportSummaryResponse>> importDeals(
+            @RequestBody List<FxDealRequest> requests,
+            @RequestParam(defaultValue = "false") boolean parallel,
+            @RequestParam(defaultValue = "false") boolean lenient,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = ClusterClient.FORWARDED_BY_HEADER, required = false) String forwardedBy,
+            @RequestHeader(name = ClusterClient.SECRET_HEADER, required = false) String clusterSecret) {
+
+        log.info("Received import request for {} deals (lenient: {}{})", requests.size(), lenient,
+                forwardedBy == null ? "" : ", forwarded by " + forwardedBy);
+
+        if (lenient && parallel) {
+            throw new InvalidRequestParameterException("lenient cannot be combined with parallel");
+        }
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new InvalidRequestParameterException(IDEMPOTENCY_KEY_HEADER + " must be 1 to "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        // Deals forwarded by another node are owned here and must not be routed again
+        boolean forwarded = forwardedBy != null && clusterImportService.isForwardedByPeer(forwardedBy, clusterSecret);
+        if (forwardedBy != null && !forwarded) {
+            log.warn("Ignoring {} header from a sender that is not a cluster peer", ClusterClient.FORWARDED_BY_HEADER);
+        }
+        boolean route = !forwarded && clusterImportService.isEnabled();
+        // A retry is answered before it takes an import slot: with the stored summary,
+        // or with 429 while the import it repeats is still running
+        byte[] fingerprint = idempotencyKey == null ? null : fingerprint(requests, parallel, lenient);
+        Optional<ImportSummaryResponse> stored = fingerprint == null
+                ? Optional.empty()
+                : idempotencyStore.lookup(idempotencyKey, fingerprint);
+        if (stored.isPresent()) {
+            return admitted(ImportAdmission.Permit.UNLIMITED, () -> ResponseEntity.ok(stored.get()));
+        }
+
+        // The sending node admitted the whole import already; a rejection here would only lose its share
+        ImportAdmission.Permit permit = forwarded
+                ? ImportAdmission.Permit.UNLIMITED
+                : importAdmission.admit(requests.size());
+
+        return admitted(permit, () -> {
+            if (requests.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            ImportSummaryResponse summary = fingerprint == null
+                    ? importDeals(requests, parallel, lenient, route)
+                    : idempotencyStore.execute(idempotencyKey, fingerprint,
+                            () -> importDeals(requests, parallel, lenient, route));
+            return ResponseEntity.status(HttpStatus.OK).body(summary);
+        });
+    }
+
+    // SHA-256 of the bound body and the flags, so a key reused with another request is never mistaken for a retry
+    private byte[] fingerprint(List<FxDealRequest> requests, boolean parallel, boolean lenient) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Streamed into the digest, so a bulk body is not serialized into a second copy
+            objectMapper.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), requests);
+            digest.update((byte) (parallel ? 1 : 0));
+            digest.update((byte) (lenient ? 1 : 0));
+            return digest.digest();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint import request", e);
+        }
+    }
+
+    private ImportSummaryResponse importDeals(List<FxDealRequest> requests, boolean parallel, boolean lenient,
+                                              boolean route) {
+        if (lenient) {
+            return route
+                    ? clusterImportService.importLenient(requests)
+                    : streamImporter.importLenient(requests);
+        }
+        validator.validateAll(requests);
+
+        if (route) {
+            return clusterImportService.importDeals(requests, parallel);
+        }
+
+        return parallel
+                ? parallelImportService.importDeals(requests)
+                : service.importDeals(requests);
+    }
+
+
+    @PostMapping(value = "/import", consumes = FxDealBinaryFormat.MEDIA_TYPE)
+    public DeferredResult<ResponseEntity<ImportSummaryResponse>> importDealsBinary(InputStream body) {
+        log.info("Received binary import request");
+
+        return admitted(importAdmission.admit(ImportAdmission.Lane.BULK), () -> {
+            ImportSummaryResponse summary = binaryImporter.importBinary(body);
+
+            if (summary.getImported() + summary.getSkipped() == 0) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            return ResponseEntity.status(HttpStatus.OK).body(summary);
+        });
+    }
+
+
+    /**
+     * Runs {@code importer} on the import pool holding {@code permit}. The permit is
+     * given back when the import ends, even if the request timed out before, or when
+     * the request completes without the import having started; the import is then
+     * not run at all. The summary is closed once the request has completed, which
+     * deletes the file its spilled errors were kept in.
+     */
+    private DeferredResult<ResponseEntity<ImportSummaryResponse>> admitted(
+            ImportAdmission.Permit permit, Callable<ResponseEntity<ImportSummaryResponse>> importer) {
+        AtomicReference<ResponseEntity<ImportSummaryResponse>> result = new AtomicReference<>();
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        DeferredResult<ResponseEntity<ImportSummaryResponse>> deferred;
+        try {
+            deferred = importRequestExecutor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    // The request completed while this waited in the queue and its permit is back already
+                    return null;
+                }
+                try (permit) {
+                    ResponseEntity<ImportSummaryResponse> response = importer.call();
+                    result.set(response);
+                    // The client may have timed out already, then nobody else closes it
+                    if (completed.get()) {
+                        closeSummary(response);
+                    }
+                    return response;
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        deferred.onCompletion(() -> {
+            if (started.compareAndSet(false, true)) {
+                permit.close();
+            }
+            completed.set(true);
+            closeSummary(result.get());
+        });
+        return deferred;
+    }
+
+    private static void closeSummary(ResponseEntity<ImportSummaryResponse> response) {
+        if (response != null && response.getBody() != null) {
+            response.getBody().close();
+        }
+    }
+
+
+    @PostMapping("/import/async")
+    public ResponseEntity<ImportJobResponse> importDealsAsync(
+            @RequestBody List<FxDealRequest> requests) {
+
+        log.info("Received async import request for {} deals", requests.size());
+
+        if (requests.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        validator.validateAll(requests);
+
+        ImportJobResponse job = importJobService.submit(requests);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/deals/import/" + job.getJobId()))
+                .body(job);
+    }
+
 
-        log.info("Received import request for {} deals", requests.size());
+    @PostMapping("/import/ingest")
+    public ResponseEntity<IngestAckResponse> ingestDeals(@RequestBody List<FxDealRequest> requests) {
+        log.info("Received ingest request for {} deals", requests.size());
 
         if (requests.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
+        validator.validateAll(requests);
 
-        ImportSummaryResponse summary = service.importDeals(requests);
-        return ResponseEntity.status(HttpStatus.OK).body(summary);
+        return ResponseEntity.accepted().body(ingestService.ingest(requests));
+    }
+
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return importJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+
+    @PostMapping(value = "/import/stream",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public DeferredResult<ResponseEntity<ImportSummaryResponse>> importDealsStream(
+            InputStream body,
+            @RequestParam(defaultValue = "false") boolean bulk,
+            @RequestParam(defaultValue = "false") boolean lenient) {
+        log.info("Received streaming import request (bulk: {}, lenient: {})", bulk, lenient);
+
+        return admitted(importAdmission.admit(ImportAdmission.Lane.BULK), () -> {
+            ImportSummaryResponse summary = streamImporter.importStream(body, bulk, lenient);
+
+            if (summary.getImported() + summary.getSkipped() == 0) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            return ResponseEntity.status(HttpStatus.OK).body(summary);
+        });
     }
 
 
     @GetMapping
-    public ResponseEntity<List<FxDealResponse>> getAllDeals() {
-        log.info("Fetching all deals");
-        List<FxDealResponse> deals = service.getAllDeals();
-        return ResponseEntity.ok(deals);
+    public ResponseEntity<StreamingResponseBody> getAllDeals() {
+        log.info("Streaming all deals");
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                service.streamAllDeals(deal -> {
+                    try {
+                        generator.writeObject(deal);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+
+    /**
+     * Same stream as {@link #getAllDeals()} as newline-delimited JSON, one deal per
+     * line, so clients can process deals as they arrive.
+     */
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> getAllDealsNdjson() {
+        log.info("Streaming all deals as NDJSON");
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Lines are terminated explicitly instead of separated by the default space
+                generator.setRootValueSeparator(null);
+                service.streamAllDeals(deal -> {
+                    try {
+                        generator.writeObject(deal);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+
+    /**
+     * Gzipped CSV export of the deals in [{@code from}, {@code to}), in ID order. Pass
+     * the ID of the last row received as {@code afterId} to resume an interrupted export.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDeals(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") long afterId) {
+
+        log.info("Exporting deals as {}", format);
+        exportService.checkRequest(format, from, to);
+
+        StreamingResponseBody body = out -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(out, EXPORT_BUFFER_SIZE), StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+                exportService.exportCsv(from, to, afterId, writer);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("deals.csv.gz").build().toString())
+                .body(body);
+    }
+
+
+    /**
+     * Server-Sent Events feed of deals as they are committed. Browsers resume with the
+     * {@code Last-Event-ID} header on reconnect; other clients can pass {@code after}.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToDeals(
+            @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+
+        String cursor = lastEventId != null ? lastEventId : after;
+        log.info("New deal feed subscriber (after: {})", cursor);
+        return dealFeed.subscribe(cursor);
+    }
+
+
+    @GetMapping("/search")
+    public ResponseEntity<DealSearchResponse> searchDeals(
+            DealSearchRequest criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+
+        log.info("Searching deals: {}", criteria);
+        return ResponseEntity.ok(searchService.search(criteria, cursor, size));
+    }
+
+
+    @GetMapping("/{dealUniqueId}")
+    public ResponseEntity<FxDealResponse> getDeal(@PathVariable String dealUniqueId) {
+        log.debug("Looking up deal {}", dealUniqueId);
+        return service.findDeal(dealUniqueId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+
+    @PostMapping("/lookup")
+    public ResponseEntity<DealLookupResponse> lookupDeals(@RequestBody List<String> dealUniqueIds) {
+        log.debug("Looking up {} deals", dealUniqueIds.size());
+        return ResponseEntity.ok(service.findDeals(dealUniqueIds));
+    }
+
+
+    @GetMapping("/stats")
+    public ResponseEntity<PairStatsResponse> getPairStats(
+            @RequestParam String pair,
+            @RequestParam(defaultValue = "1h") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.info("Fetching {} stats for {}", bucket, pair);
+        return ResponseEntity.ok(statsService.getPairStats(pair, bucket, from, to));
+    }
+
+
+    @GetMapping("/page")
+    public ResponseEntity<DealPageResponse> getDealsPage(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+
+        log.info("Fetching deals page after id {}", afterId);
+        return ResponseEntity.ok(service.getDealsPage(afterId, size));
     }
 }
@@ -0,0 +1,34 @@
+package com.example.datawarehouse.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters of a deal search, bound from query parameters. Every filter is optional;
+ * time bounds are [{@code timestampFrom}, {@code timestampTo}) and amount bounds
+ * are inclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealSearchRequest {
+
+    private String fromCurrency;
+    private String toCurrency;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime timestampFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime timestampTo;
+
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
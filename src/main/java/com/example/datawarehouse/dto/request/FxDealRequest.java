@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// The import endpoints check these constraints with FxDealRequestValidator, which
+// mirrors them by hand; keep both in sync
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,22 @@
+package com.example.datawarehouse.dto.response;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealLookupResponse {
+
+    @Builder.Default
+    private List<FxDealResponse> deals = new ArrayList<>();
+
+    /**
+     * Requested IDs with no stored deal, in request order.
+     */
+    @Builder.Default
+    private List<String> missing = new ArrayList<>();
+}
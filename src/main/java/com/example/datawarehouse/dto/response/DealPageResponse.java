@@ -0,0 +1,21 @@
+package com.example.datawarehouse.dto.response;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealPageResponse {
+
+    @Builder.Default
+    private List<FxDealResponse> deals = new ArrayList<>();
+
+    /**
+     * Value to pass as {@code afterId} to fetch the next page, or null on the last page.
+     */
+    private Long nextAfterId;
+}
@@ -0,0 +1,22 @@
+package com.example.datawarehouse.dto.response;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealSearchResponse {
+
+    @Builder.Default
+    private List<FxDealResponse> deals = new ArrayList<>();
+
+    /**
+     * Value to pass as {@code cursor} with the same filters to fetch the next page,
+     * or null on the last page.
+     */
+    private String nextCursor;
+}
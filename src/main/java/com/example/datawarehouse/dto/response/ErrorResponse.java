@@ -1,5 +1,6 @@
 package com.example.datawarehouse.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.time.Instant;
 import java.util.List;
@@ -16,6 +17,10 @@ public class ErrorResponse {
     private String message;
     private String path;
 
+    // Position of the offending deal when an import stopped on it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer index;
+
     @Builder.Default
     private List<String> details = List.of();
 }
@@ -0,0 +1,28 @@
+package com.example.datawarehouse.dto.response;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobResponse {
+
+    private String jobId;
+    private Status status;
+    private int imported;
+    private int skipped;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private ImportSummaryResponse summary;
+    private String error;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
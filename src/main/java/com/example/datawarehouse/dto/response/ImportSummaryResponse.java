@@ -1,7 +1,10 @@
 package com.example.datawarehouse.dto.response;
 
+import com.example.datawarehouse.util.SpillingErrorList;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,7 +12,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class ImportSummaryResponse {
+public class ImportSummaryResponse implements Closeable {
+
+    public static final String INVALID_REASON = "Validation failed";
 
     private int imported;
     private int skipped;
@@ -17,6 +22,70 @@ public class ImportSummaryResponse {
     @Builder.Default
     private List<ErrorDetail> errors = new ArrayList<>();
 
+    // Errors left out of a summary replayed under its Idempotency-Key
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer omittedErrors;
+
+    /**
+     * An empty summary for imports of unbounded size: errors past the first
+     * {@code maxErrorsInMemory} are kept in a temporary file instead of the heap.
+     */
+    public static ImportSummaryResponse withSpilledErrors(int maxErrorsInMemory) {
+        return ImportSummaryResponse.builder()
+                .imported(0)
+                .skipped(0)
+                .errors(new SpillingErrorList(maxErrorsInMemory))
+                .build();
+    }
+
+    /**
+     * Counts one deal as imported, or as skipped with the given reason when it is not null.
+     */
+    public void record(String dealUniqueId, String skipReason) {
+        if (skipReason == null) {
+            imported++;
+            return;
+        }
+        skipped++;
+        errors.add(ErrorDetail.builder()
+                .dealUniqueId(dealUniqueId)
+                .reason(skipReason)
+                .build());
+    }
+
+    /**
+     * Counts the deal at {@code index} of the request as skipped because it failed validation.
+     */
+    public void recordInvalid(int index, String dealUniqueId, List<String> details) {
+        skipped++;
+        errors.add(ErrorDetail.builder()
+                .dealUniqueId(dealUniqueId)
+                .reason(INVALID_REASON)
+                .index(index)
+                .details(details)
+                .build());
+    }
+
+    /**
+     * Adds the counts and errors of another summary, e.g. one returned by another node.
+     */
+    public void merge(ImportSummaryResponse other) {
+        imported += other.getImported();
+        skipped += other.getSkipped();
+        errors.addAll(other.getErrors());
+    }
+
+    /**
+     * Deletes the temporary file of spilled errors, if any, once the summary has
+     * been sent. Errors past those kept in memory cannot be read afterwards.
+     */
+    @Override
+    public void close() {
+        if (errors instanceof SpillingErrorList spilled) {
+            spilled.close();
+        }
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -24,5 +93,11 @@ public class ImportSummaryResponse {
     public static class ErrorDetail {
         private String dealUniqueId;
         private String reason;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer index;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private List<String> details;
     }
 }
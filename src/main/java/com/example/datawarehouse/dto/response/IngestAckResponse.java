@@ -0,0 +1,23 @@
+package com.example.datawarehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestAckResponse {
+
+    /**
+     * Deals written durably to the ingest log by this request.
+     */
+    private int accepted;
+
+    /**
+     * Deals in the log not yet written to the database, this request's included.
+     */
+    private long pending;
+}
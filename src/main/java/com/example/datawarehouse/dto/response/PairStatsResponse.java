@@ -0,0 +1,31 @@
+package com.example.datawarehouse.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PairStatsResponse {
+
+    private String pair;
+    private String bucket;
+
+    @Builder.Default
+    private List<Bucket> buckets = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Bucket {
+        private LocalDateTime bucketStart;
+        private long dealCount;
+        private BigDecimal totalAmount;
+    }
+}
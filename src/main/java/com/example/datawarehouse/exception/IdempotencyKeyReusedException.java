@@ -0,0 +1,7 @@
+package com.example.datawarehouse.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency-Key '" + idempotencyKey + "' was already used for a different request");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.datawarehouse.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class ImportRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ImportRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
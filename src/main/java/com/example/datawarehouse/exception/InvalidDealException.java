@@ -0,0 +1,18 @@
+package com.example.datawarehouse.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InvalidDealException extends RuntimeException {
+
+    private final int index;
+    private final List<String> details;
+
+    public InvalidDealException(int index, List<String> details) {
+        super("Deal at index " + index + " is invalid, import stopped");
+        this.index = index;
+        this.details = details;
+    }
+}
@@ -7,10 +7,10 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 
+// Schema is managed by Flyway (db/migration): fx_deals is range-partitioned by
+// month on deal_timestamp, and deal_unique_id uniqueness is enforced via fx_deal_keys
 @Entity
-@Table(name = "fx_deals", indexes = {
-        @Index(name = "idx_deal_unique_id", columnList = "dealUniqueId", unique = true)
-})
+@Table(name = "fx_deals")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,11 +18,15 @@ import java.time.LocalDateTime;
 @Builder
 public class FxDeal {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fx_deals_seq")
+    @SequenceGenerator(name = "fx_deals_seq", sequenceName = "fx_deals_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String dealUniqueId;
 
     @Column(nullable = false, length = 3)
@@ -0,0 +1,24 @@
+package com.example.datawarehouse.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum StatsBucket {
+
+    HOUR("1h", "hour"),
+    DAY("1d", "day");
+
+    private final String code;
+    private final String truncUnit;
+
+    public static Optional<StatsBucket> fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(bucket -> bucket.code.equalsIgnoreCase(code))
+                .findFirst();
+    }
+}
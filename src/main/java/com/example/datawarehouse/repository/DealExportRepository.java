@@ -0,0 +1,54 @@
+package com.example.datawarehouse.repository;
+
+import com.example.datawarehouse.model.FxDeal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads deals for export in ID order, one keyset page per statement. Rows are
+ * handed over as they are read instead of being collected into a list first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DealExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Passes at most {@code limit} deals with an ID above {@code afterId} and a
+     * timestamp in [{@code from}, {@code to}) to {@code consumer}, in ID order.
+     * Either bound may be null.
+     */
+    public void forEachInPage(LocalDateTime from, LocalDateTime to, long afterId, int limit,
+                              Consumer<FxDeal> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT id, deal_unique_id, from_currency_iso_code,"
+                + " to_currency_iso_code, deal_timestamp, deal_amount FROM fx_deals WHERE id > ?");
+        List<Object> args = new ArrayList<>(List.of(afterId));
+        if (from != null) {
+            sql.append(" AND deal_timestamp >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND deal_timestamp < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> consumer.accept(FxDeal.builder()
+                .id(rs.getLong("id"))
+                .dealUniqueId(rs.getString("deal_unique_id"))
+                .fromCurrencyIsoCode(rs.getString("from_currency_iso_code"))
+                .toCurrencyIsoCode(rs.getString("to_currency_iso_code"))
+                .dealTimestamp(rs.getTimestamp("deal_timestamp").toLocalDateTime())
+                .dealAmount(rs.getBigDecimal("deal_amount"))
+                .build()), args.toArray());
+    }
+}
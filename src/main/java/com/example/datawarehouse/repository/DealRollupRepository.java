@@ -0,0 +1,114 @@
+package com.example.datawarehouse.repository;
+
+import com.example.datawarehouse.dto.response.PairStatsResponse;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.model.StatsBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hourly per-pair totals kept in {@code fx_deal_rollups}. Written by the import path
+ * inside the transaction that inserts the deals, so the totals never disagree with
+ * committed rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DealRollupRepository {
+
+    private static final String UPSERT = """
+            INSERT INTO fx_deal_rollups
+                (from_currency_iso_code, to_currency_iso_code, bucket_start, deal_count, total_amount)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (from_currency_iso_code, to_currency_iso_code, bucket_start) DO UPDATE
+            SET deal_count = fx_deal_rollups.deal_count + EXCLUDED.deal_count,
+                total_amount = fx_deal_rollups.total_amount + EXCLUDED.total_amount
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the given deals to their hourly buckets. Rows are upserted in key order so
+     * concurrent imports touching the same buckets lock them in the same order.
+     */
+    public void addDeals(Collection<FxDeal> deals) {
+        if (deals.isEmpty()) {
+            return;
+        }
+
+        Map<RollupKey, Totals> rollups = new TreeMap<>();
+        for (FxDeal deal : deals) {
+            RollupKey key = new RollupKey(deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode(),
+                    deal.getDealTimestamp().truncatedTo(ChronoUnit.HOURS));
+            rollups.computeIfAbsent(key, k -> new Totals()).add(deal.getDealAmount());
+        }
+
+        List<Object[]> rows = new ArrayList<>(rollups.size());
+        rollups.forEach((key, totals) -> rows.add(new Object[]{
+                key.from(), key.to(), Timestamp.valueOf(key.bucketStart()), totals.count, totals.amount}));
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+
+    /**
+     * Totals for one pair, grouped by {@code bucket}, for hourly buckets starting in
+     * [{@code from}, {@code to}). Either bound may be null.
+     */
+    public List<PairStatsResponse.Bucket> findTotals(String fromCurrency, String toCurrency, StatsBucket bucket,
+                                                     LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder("SELECT date_trunc('")
+                .append(bucket.getTruncUnit())
+                .append("', bucket_start) AS bucket, SUM(deal_count) AS deal_count, SUM(total_amount) AS total_amount")
+                .append(" FROM fx_deal_rollups WHERE from_currency_iso_code = ? AND to_currency_iso_code = ?");
+        List<Object> args = new ArrayList<>(List.of(fromCurrency, toCurrency));
+        if (from != null) {
+            sql.append(" AND bucket_start >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND bucket_start < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" GROUP BY 1 ORDER BY 1");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> PairStatsResponse.Bucket.builder()
+                .bucketStart(rs.getTimestamp("bucket").toLocalDateTime())
+                .dealCount(rs.getLong("deal_count"))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .build(), args.toArray());
+    }
+
+
+    private record RollupKey(String from, String to, LocalDateTime bucketStart) implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::from)
+                .thenComparing(RollupKey::to)
+                .thenComparing(RollupKey::bucketStart);
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class Totals {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private void add(BigDecimal dealAmount) {
+            count++;
+            amount = amount.add(dealAmount);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.datawarehouse.repository;
+
+import com.example.datawarehouse.dto.request.DealSearchRequest;
+import com.example.datawarehouse.model.FxDeal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtered deal search in {@code (deal_timestamp, id)} order with keyset paging.
+ * Only the filters that are set become predicates, so each combination gets its
+ * own plan over the indexes of the V4 migration.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DealSearchRepository {
+
+    private static final String SELECT = "SELECT id, deal_unique_id, from_currency_iso_code, to_currency_iso_code,"
+            + " deal_timestamp, deal_amount, created_at FROM fx_deals";
+
+    private static final RowMapper<FxDeal> ROW_MAPPER = (rs, rowNum) -> FxDeal.builder()
+            .id(rs.getLong("id"))
+            .dealUniqueId(rs.getString("deal_unique_id"))
+            .fromCurrencyIsoCode(rs.getString("from_currency_iso_code"))
+            .toCurrencyIsoCode(rs.getString("to_currency_iso_code"))
+            .dealTimestamp(rs.getTimestamp("deal_timestamp").toLocalDateTime())
+            .dealAmount(rs.getBigDecimal("deal_amount"))
+            .createdAt(rs.getObject("created_at", OffsetDateTime.class).toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param after position of the last deal of the previous page, or null for the first page
+     * @return at most {@code limit} matching deals following {@code after}
+     */
+    public List<FxDeal> search(DealSearchRequest criteria, Position after, int limit) {
+        SearchQuery query = buildQuery(criteria, after, limit);
+        return jdbcTemplate.query(query.sql(), ROW_MAPPER, query.args());
+    }
+
+
+    static SearchQuery buildQuery(DealSearchRequest criteria, Position after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (criteria.getFromCurrency() != null) {
+            sql.append(" AND from_currency_iso_code = ?");
+            args.add(criteria.getFromCurrency());
+        }
+        if (criteria.getToCurrency() != null) {
+            sql.append(" AND to_currency_iso_code = ?");
+            args.add(criteria.getToCurrency());
+        }
+        if (criteria.getTimestampFrom() != null) {
+            sql.append(" AND deal_timestamp >= ?");
+            args.add(Timestamp.valueOf(criteria.getTimestampFrom()));
+        }
+        if (criteria.getTimestampTo() != null) {
+            sql.append(" AND deal_timestamp < ?");
+            args.add(Timestamp.valueOf(criteria.getTimestampTo()));
+        }
+        if (criteria.getMinAmount() != null) {
+            sql.append(" AND deal_amount >= ?");
+            args.add(criteria.getMinAmount());
+        }
+        if (criteria.getMaxAmount() != null) {
+            sql.append(" AND deal_amount <= ?");
+            args.add(criteria.getMaxAmount());
+        }
+        if (after != null) {
+            // Row comparison, so both index orderings can seek straight to the position
+            sql.append(" AND (deal_timestamp, id) > (?, ?)");
+            args.add(Timestamp.valueOf(after.dealTimestamp()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY deal_timestamp, id LIMIT ?");
+        args.add(limit);
+        return new SearchQuery(sql.toString(), args.toArray());
+    }
+
+
+    /**
+     * Keyset position: the sort key of the last deal already returned.
+     */
+    public record Position(LocalDateTime dealTimestamp, long id) {
+    }
+
+    record SearchQuery(String sql, Object[] args) {
+    }
+}
@@ -1,13 +1,53 @@
 package com.example.datawarehouse.repository;
 
 import com.example.datawarehouse.model.FxDeal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FxDealRepository extends JpaRepository<FxDeal, Long> {
 
-    boolean existsByDealUniqueId(String dealUniqueId);
+    // Existence checks go to fx_deal_keys, which holds every taken deal ID in one
+    // index instead of one per monthly partition of fx_deals
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM fx_deal_keys WHERE deal_unique_id = :dealUniqueId)",
+            nativeQuery = true)
+    boolean existsByDealUniqueId(@Param("dealUniqueId") String dealUniqueId);
     Optional<FxDeal> findByDealUniqueId(String dealUniqueId);
+
+    List<FxDeal> findByDealUniqueIdIn(Collection<String> dealUniqueIds);
+
+    @Query(value = "SELECT deal_unique_id FROM fx_deal_keys WHERE deal_unique_id IN (:dealUniqueIds)",
+            nativeQuery = true)
+    List<String> findExistingDealUniqueIds(@Param("dealUniqueIds") Collection<String> dealUniqueIds);
+
+    /**
+     * Keyset page: the deals following {@code afterId} in ID order.
+     */
+    List<FxDeal> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Streams every deal in ID order through a server-side cursor, fetching
+     * {@code hibernate.jdbc.fetch_size} rows at a time. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT d FROM FxDeal d ORDER BY d.id")
+    Stream<FxDeal> streamAllOrderById();
+
+    // Counts deals of detached partitions too, whose IDs stay taken
+    @Query(value = "SELECT count(*) FROM fx_deal_keys", nativeQuery = true)
+    long countDealUniqueIds();
+
+    @Query(value = "SELECT deal_unique_id FROM fx_deal_keys", nativeQuery = true)
+    Stream<String> streamAllDealUniqueIds();
 }
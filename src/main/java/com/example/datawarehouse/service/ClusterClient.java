@@ -0,0 +1,62 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ClusterProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import java.net.http.HttpClient;
+import java.util.List;
+
+/**
+ * HTTP calls from this node to the other cluster members.
+ */
+@Component
+public class ClusterClient {
+
+    /**
+     * Marks an import forwarded by another node, carrying that node's ID. The
+     * receiving node imports such requests itself instead of routing them again.
+     */
+    public static final String FORWARDED_BY_HEADER = "X-Forwarded-By-Node";
+
+    /**
+     * Carries {@code fxdeals.cluster.secret}, so that the receiving node can tell a
+     * forward from a client setting {@link #FORWARDED_BY_HEADER} itself.
+     */
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final RestClient restClient;
+    private final String selfId;
+    private final String secret;
+
+    public ClusterClient(RestClient.Builder builder, ClusterProperties properties, ClusterMembership membership) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getForwardTimeout());
+
+        this.restClient = builder.requestFactory(requestFactory).build();
+        this.selfId = membership.self().id();
+        this.secret = properties.getSecret();
+    }
+
+
+    /**
+     * Imports already validated deals on {@code node} and returns its summary.
+     */
+    public ImportSummaryResponse forwardImport(ClusterMembership.Node node, List<FxDealRequest> deals,
+                                               boolean parallel) {
+        return restClient.post()
+                .uri(node.url() + "/api/deals/import?parallel={parallel}", parallel)
+                .header(FORWARDED_BY_HEADER, selfId)
+                .header(SECRET_HEADER, secret)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(deals)
+                .retrieve()
+                .body(ImportSummaryResponse.class);
+    }
+}
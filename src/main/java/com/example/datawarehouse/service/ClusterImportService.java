@@ -0,0 +1,241 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ClusterProperties;
+import com.example.datawarehouse.config.ImportRequestProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Splits an import by the node owning each deal ID. The local share is imported
+ * here while the other shares are forwarded, in batches, to their owners, which
+ * import them as any other request. Since a deal ID is only ever written by its
+ * owner, nodes no longer race each other on the unique index, and each owner's
+ * {@link DealIdFilter} covers every ID of its range.
+ * <p>
+ * Deals whose owner cannot be reached are reported as skipped and can be sent
+ * again later; deals the owner did store are then skipped as duplicates. The
+ * merged summary lists the local errors first, then those of each other node.
+ * <p>
+ * Forwards run on a pool with one thread per other node for each import worker,
+ * so concurrent imports do not wait on each other's forwards. When its queue is
+ * full too, the import is rejected with 429 before anything is written.
+ * <p>
+ * A forward is only recognised as such when it names another member and carries
+ * the cluster secret; anything else is routed and admitted like a client request.
+ */
+@Service
+@Slf4j
+public class ClusterImportService implements DisposableBean {
+
+    static final String OWNER_UNAVAILABLE_REASON = "Owning node unavailable";
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final ClusterMembership membership;
+    private final ClusterClient client;
+    private final FxDealService service;
+    private final ParallelImportService parallelImportService;
+    private final FxDealRequestValidator validator;
+    private final ClusterProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor executor;
+
+    public ClusterImportService(ClusterMembership membership, ClusterClient client, FxDealService service,
+                                ParallelImportService parallelImportService, FxDealRequestValidator validator,
+                                ClusterProperties properties, ImportRequestProperties importRequestProperties,
+                                MeterRegistry meterRegistry) {
+        this.membership = membership;
+        this.client = client;
+        this.service = service;
+        this.parallelImportService = parallelImportService;
+        this.validator = validator;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (membership.isClustered() && (properties.getSecret() == null || properties.getSecret().isBlank())) {
+            throw new IllegalStateException("fxdeals.cluster.secret must be set when clustering is enabled");
+        }
+        this.executor = createExecutor(membership, properties, importRequestProperties, meterRegistry);
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(ClusterMembership membership, ClusterProperties properties,
+                                                         ImportRequestProperties importRequestProperties,
+                                                         MeterRegistry meterRegistry) {
+        int threads = Math.max(1, importRequestProperties.getWorkers()) * Math.max(1, membership.nodes().size() - 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(properties.getForwardQueueCapacity());
+        executor.setThreadNamePrefix("cluster-forward-");
+        // Thrown through submit as is, so the import request is answered with 429
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            log.warn("Cluster forward rejected, {} queued", pool.getQueue().size());
+            throw new ImportRejectedException("Too many forwards in progress, retry later", RETRY_AFTER);
+        });
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "cluster-forward", List.of())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+
+    /**
+     * Whether imports have to be routed, i.e. this node shares the ID space with others.
+     */
+    public boolean isEnabled() {
+        return membership.isClustered();
+    }
+
+
+    /**
+     * Whether a request claiming to be forwarded by {@code nodeId} comes from another
+     * member of the cluster, i.e. the ID names a node other than this one and the
+     * request carries the cluster secret.
+     */
+    public boolean isForwardedByPeer(String nodeId, String secret) {
+        if (!isEnabled() || nodeId == null || secret == null || nodeId.equals(membership.self().id())
+                || membership.nodes().stream().noneMatch(node -> node.id().equals(nodeId))) {
+            return false;
+        }
+        // Constant time, so the secret cannot be guessed from how long a comparison takes
+        return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                properties.getSecret().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Routes deals that were all validated already.
+     */
+    public ImportSummaryResponse importDeals(List<FxDealRequest> requests, boolean parallel) {
+        return route(requests, parallel, emptySummary());
+    }
+
+
+    /**
+     * Validates the deals here, records the invalid ones with their index in the
+     * request and routes the rest.
+     */
+    public ImportSummaryResponse importLenient(List<FxDealRequest> requests) {
+        ImportSummaryResponse summary = emptySummary();
+        List<FxDealRequest> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            FxDealRequest request = requests.get(i);
+            List<String> errors = validator.validate(request);
+            if (errors.isEmpty()) {
+                valid.add(request);
+            } else {
+                summary.recordInvalid(i, request.getDealUniqueId(), errors);
+            }
+        }
+        if (summary.getSkipped() > 0) {
+            log.warn("Skipped {} invalid deals in lenient import", summary.getSkipped());
+        }
+        return route(valid, false, summary);
+    }
+
+
+    private ImportSummaryResponse route(List<FxDealRequest> requests, boolean parallel,
+                                        ImportSummaryResponse summary) {
+        Map<ClusterMembership.Node, List<FxDealRequest>> shares = new LinkedHashMap<>();
+        for (FxDealRequest request : requests) {
+            shares.computeIfAbsent(membership.ownerOf(request.getDealUniqueId()), node -> new ArrayList<>())
+                    .add(request);
+        }
+        List<FxDealRequest> local = shares.remove(membership.self());
+        log.info("Routing {} deals: {} owned locally, the rest split across {} nodes",
+                requests.size(), local == null ? 0 : local.size(), shares.size());
+
+        List<Future<ImportSummaryResponse>> forwarded = new ArrayList<>(shares.size());
+        try {
+            shares.forEach((node, deals) -> forwarded.add(executor.submit(() -> forward(node, deals, parallel))));
+        } catch (ImportRejectedException e) {
+            // Nothing was imported locally yet, so drop the forwards queued so far
+            forwarded.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        try {
+            if (local != null) {
+                summary.merge(parallel ? parallelImportService.importDeals(local) : service.importDeals(local));
+            }
+            for (Future<ImportSummaryResponse> future : forwarded) {
+                summary.merge(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            forwarded.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Cluster import interrupted", e);
+        } catch (ExecutionException e) {
+            forwarded.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Cluster import failed", e.getCause());
+        } catch (RuntimeException e) {
+            // The local share failed, as on a duplicate in a strict import, so the forwards are not waited for
+            forwarded.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return summary;
+    }
+
+
+    // Batches go out one after the other so that repeated IDs reach the owner in order
+    private ImportSummaryResponse forward(ClusterMembership.Node node, List<FxDealRequest> deals, boolean parallel) {
+        ImportSummaryResponse summary = emptySummary();
+        int batchSize = Math.max(1, properties.getForwardBatchSize());
+        for (int from = 0; from < deals.size(); from += batchSize) {
+            List<FxDealRequest> batch = deals.subList(from, Math.min(from + batchSize, deals.size()));
+            try {
+                summary.merge(client.forwardImport(node, batch, parallel));
+                forwardedCounter(node, "ok").increment(batch.size());
+            } catch (RestClientException e) {
+                List<FxDealRequest> remaining = deals.subList(from, deals.size());
+                log.warn("Forwarding {} deals to node {} failed: {}", remaining.size(), node.id(), e.getMessage());
+                remaining.forEach(deal -> summary.record(deal.getDealUniqueId(), OWNER_UNAVAILABLE_REASON));
+                forwardedCounter(node, "failed").increment(remaining.size());
+                break;
+            }
+        }
+        return summary;
+    }
+
+    private Counter forwardedCounter(ClusterMembership.Node node, String outcome) {
+        return Counter.builder("fxdeals.cluster.forwarded")
+                .description("Deals forwarded to the node owning them")
+                .tag("node", node.id())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static ImportSummaryResponse emptySummary() {
+        return ImportSummaryResponse.builder()
+                .imported(0)
+                .skipped(0)
+                .build();
+    }
+
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
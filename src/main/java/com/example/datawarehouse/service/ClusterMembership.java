@@ -0,0 +1,114 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ClusterProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Static cluster membership read from the members file, and the hash ranges each
+ * node owns. The 32-bit hash space of {@code dealUniqueId} is cut into one
+ * contiguous range per node, in node ID order, so every node that reads the same
+ * file agrees on the owner of every deal without talking to the others.
+ * <p>
+ * With clustering disabled this node is the only member and owns every ID.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private static final String LOCAL_NODE_ID = "local";
+
+    private final Node self;
+    private final List<Node> nodes;
+
+    @Autowired
+    public ClusterMembership(ClusterProperties properties, ObjectMapper objectMapper) {
+        this(properties.isEnabled() ? properties.getNodeId() : LOCAL_NODE_ID,
+                properties.isEnabled() ? readMembers(properties, objectMapper) : List.of(new Node(LOCAL_NODE_ID, null)));
+    }
+
+    ClusterMembership(String selfId, List<Node> members) {
+        Set<String> ids = new HashSet<>();
+        for (Node node : members) {
+            if (node.id() == null || !ids.add(node.id())) {
+                throw new IllegalStateException("Cluster node IDs must be present and unique, got " + node.id());
+            }
+        }
+        this.nodes = members.stream().sorted(Comparator.comparing(Node::id)).toList();
+        this.self = nodes.stream()
+                .filter(node -> node.id().equals(selfId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Node " + selfId + " is not a cluster member"));
+
+        if (nodes.size() > 1) {
+            int index = nodes.indexOf(self);
+            log.info("Cluster node {} of {}, owning deal ID hashes [{}, {})", self.id(), nodes.size(),
+                    Long.toHexString(rangeStart(index)), Long.toHexString(rangeStart(index + 1)));
+        }
+    }
+
+    private static List<Node> readMembers(ClusterProperties properties, ObjectMapper objectMapper) {
+        try {
+            List<Node> nodes = objectMapper.readValue(properties.getMembersFile().toFile(), Members.class).nodes();
+            if (nodes == null || nodes.isEmpty()) {
+                throw new IllegalStateException("No nodes listed in " + properties.getMembersFile());
+            }
+            return nodes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read cluster members from " + properties.getMembersFile(), e);
+        }
+    }
+
+
+    public Node self() {
+        return self;
+    }
+
+    public List<Node> nodes() {
+        return nodes;
+    }
+
+    public boolean isClustered() {
+        return nodes.size() > 1;
+    }
+
+    public Node ownerOf(String dealUniqueId) {
+        return nodes.get(ownerIndex(dealUniqueId, nodes.size()));
+    }
+
+    public boolean ownsLocally(String dealUniqueId) {
+        return ownerOf(dealUniqueId) == self;
+    }
+
+
+    // String.hashCode is fixed by the language spec, so every JVM computes the same
+    // value; the MurmurHash3 finalizer spreads similar IDs across the ranges
+    static int ownerIndex(String dealUniqueId, int nodeCount) {
+        int hash = dealUniqueId.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xFFFFFFFFL) * nodeCount) >>> 32);
+    }
+
+    private long rangeStart(int index) {
+        return ((1L << 32) * index + nodes.size() - 1) / nodes.size();
+    }
+
+
+    public record Node(String id, String url) {
+    }
+
+    record Members(List<Node> nodes) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ExportProperties;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+/**
+ * Bulk export of deals as CSV, written while rows are read. Deals are read in ID
+ * order one keyset page at a time, so memory is bounded by the page size and no
+ * transaction stays open for the whole export. Every row starts with the deal's
+ * ID, which lets a client resume an interrupted export after the last complete row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DealExportService {
+
+    static final String CSV_FORMAT = "csv";
+    static final String CSV_HEADER = "id,dealUniqueId,fromCurrencyIsoCode,toCurrencyIsoCode,dealTimestamp,dealAmount";
+
+    private final DealExportRepository repository;
+    private final ExportProperties properties;
+
+    /**
+     * Rejects an export request before the response is started.
+     */
+    public void checkRequest(String format, LocalDateTime from, LocalDateTime to) {
+        if (!CSV_FORMAT.equals(format)) {
+            throw new InvalidRequestParameterException("Unsupported export format: " + format
+                    + " (supported: " + CSV_FORMAT + ")");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestParameterException("from must be before to");
+        }
+    }
+
+
+    /**
+     * Writes a header and every deal with an ID above {@code afterId} and a
+     * timestamp in [{@code from}, {@code to}) to {@code out}, one line per deal.
+     *
+     * @return the number of deals written
+     */
+    public long exportCsv(LocalDateTime from, LocalDateTime to, long afterId, Writer out) throws IOException {
+        log.info("Exporting deals in [{}, {}) after id {}", from, to, afterId);
+
+        out.write(CSV_HEADER);
+        out.write('\n');
+
+        int pageSize = Math.max(1, properties.getPageSize());
+        Page page = new Page(afterId);
+        long exported = 0;
+        try {
+            do {
+                page.rows = 0;
+                repository.forEachInPage(from, to, page.lastId, pageSize, deal -> {
+                    writeRow(out, deal);
+                    page.lastId = deal.getId();
+                    page.rows++;
+                });
+                exported += page.rows;
+            } while (page.rows == pageSize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+
+        log.info("Export completed: {} deals, last id {}", exported, page.lastId);
+        return exported;
+    }
+
+    private static void writeRow(Writer out, FxDeal deal) {
+        try {
+            out.write(Long.toString(deal.getId()));
+            out.write(',');
+            writeField(out, deal.getDealUniqueId());
+            out.write(',');
+            out.write(deal.getFromCurrencyIsoCode());
+            out.write(',');
+            out.write(deal.getToCurrencyIsoCode());
+            out.write(',');
+            out.write(deal.getDealTimestamp().toString());
+            out.write(',');
+            out.write(deal.getDealAmount().toPlainString());
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Quoted as in RFC 4180 when the value holds a delimiter, a quote or a line break
+    private static void writeField(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+
+    private static final class Page {
+
+        private long lastId;
+        private int rows;
+
+        Page(long lastId) {
+            this.lastId = lastId;
+        }
+    }
+}
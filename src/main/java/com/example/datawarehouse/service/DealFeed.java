@@ -0,0 +1,377 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.FeedProperties;
+import com.example.datawarehouse.config.FeedProperties.OverflowPolicy;
+import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes deals to feed subscribers once the transaction that stored them has
+ * committed. Every deal gets a position in the feed, sent as the SSE event ID, and
+ * the latest {@code history-size} deals are kept so a client that reconnects with
+ * its last position gets what it missed. A position the history no longer covers,
+ * or one handed out before a restart, gets a {@code reset} event instead; the
+ * client then catches up through {@code GET /api/deals/page}.
+ * <p>
+ * Publishing never waits for a subscriber. Each subscriber has its own bounded
+ * buffer, drained by a sender thread, and a subscriber that falls {@code buffer-size}
+ * deals behind is disconnected or loses its oldest deals, depending on the
+ * overflow policy. The feed only carries deals committed by this instance.
+ * <p>
+ * Senders share a fixed pool of {@code sender-threads}. A subscriber whose send
+ * has been blocked for {@code send-timeout} is dropped on the next heartbeat: it
+ * gets no more deals, and its sender thread closes it once the blocked write
+ * returns or the server's write timeout fails it. Closing would wait on the lock
+ * the blocked write holds, so it is left to that thread rather than taking another
+ * one; a client that stopped reading holds one sender thread until the write times
+ * out, however short {@code send-timeout} is.
+ */
+@Service
+@Slf4j
+public class DealFeed implements DisposableBean {
+
+    static final String DEAL_EVENT = "deal";
+    static final String RESET_EVENT = "reset";
+    static final Event RESET = new Event(-1, null);
+    static final Event HEARTBEAT = new Event(0, null);
+    private static final int HEARTBEAT_INTERVAL_SECONDS = 15;
+    private static final long IDLE = Long.MIN_VALUE;
+
+    private final FeedProperties properties;
+    private final FxDealMapper mapper;
+    private final Executor executor;
+    private final Counter overflows;
+    private final Counter stalls;
+
+    // Tells positions of this run apart from those handed out before a restart
+    private final String epoch;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Event> history = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    @Autowired
+    public DealFeed(FeedProperties properties, FxDealMapper mapper, MeterRegistry meterRegistry) {
+        this(properties, mapper, meterRegistry,
+                Executors.newFixedThreadPool(properties.getSenderThreads(), new CustomizableThreadFactory("deal-feed-")),
+                Long.toString(System.currentTimeMillis(), 36));
+    }
+
+    DealFeed(FeedProperties properties, FxDealMapper mapper, MeterRegistry meterRegistry, Executor executor,
+             String epoch) {
+        this.properties = properties;
+        this.mapper = mapper;
+        this.executor = executor;
+        this.epoch = epoch;
+
+        this.overflows = Counter.builder("fxdeals.feed.overflows")
+                .description("Feed subscribers whose buffer was full")
+                .tag("policy", properties.getOverflow().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        this.stalls = Counter.builder("fxdeals.feed.stalls")
+                .description("Feed subscribers disconnected because a send stayed blocked")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.feed.subscribers", subscribers, List::size)
+                .description("Open deal feed subscriptions")
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Publishes the deals once the current transaction commits, or straight away
+     * outside a transaction. Deals of a rolled back transaction are never published.
+     */
+    public void publishAfterCommit(List<FxDeal> deals) {
+        if (!properties.isEnabled() || deals.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(deals);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(deals);
+            }
+        });
+    }
+
+    private void publish(List<FxDeal> deals) {
+        List<FxDealResponse> responses = deals.stream().map(mapper::toResponse).toList();
+        synchronized (lock) {
+            List<Event> events = new ArrayList<>(responses.size());
+            for (FxDealResponse deal : responses) {
+                Event event = new Event(++sequence, deal);
+                events.add(event);
+                history.addLast(event);
+                if (history.size() > properties.getHistorySize()) {
+                    history.removeFirst();
+                }
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(events);
+            }
+        }
+    }
+
+
+    /**
+     * Opens a subscription starting after {@code cursor}, the ID of the last event
+     * the client received, or at the next deal when it is null.
+     */
+    public SseEmitter subscribe(String cursor) {
+        if (!properties.isEnabled()) {
+            throw new InvalidRequestParameterException("Deal feed is disabled (fxdeals.feed.enabled)");
+        }
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = subscribe(cursor, new EmitterSink(emitter));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    Subscriber subscribe(String cursor, Sink sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        synchronized (lock) {
+            if (cursor != null) {
+                subscriber.replay(eventsAfter(cursor));
+            }
+            subscribers.add(subscriber);
+        }
+        log.debug("Feed subscriber added from position {}, {} open", cursor, subscribers.size());
+        return subscriber;
+    }
+
+    // Called with the lock held
+    private List<Event> eventsAfter(String cursor) {
+        long after = parsePosition(cursor);
+        long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence();
+        if (after < 0 || after > sequence || after < oldest - 1) {
+            return List.of(RESET);
+        }
+        return history.stream().filter(event -> event.sequence() > after).toList();
+    }
+
+    private long parsePosition(String cursor) {
+        int separator = cursor.lastIndexOf('-');
+        if (separator < 0 || !cursor.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    String cursorOf(Event event) {
+        return epoch + "-" + event.sequence();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+    }
+
+
+    // Lets clients and proxies tell an idle feed from a dead connection, and finds senders stuck on one
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.heartbeat(now));
+    }
+
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.sink.close();
+        });
+        subscribers.clear();
+        if (executor instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+
+    record Event(long sequence, FxDealResponse deal) {
+    }
+
+    interface Sink {
+
+        void send(Event event) throws IOException;
+
+        void close();
+    }
+
+
+    final class Subscriber {
+
+        private final Sink sink;
+        private final ArrayDeque<Event> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        // Closed by the feed rather than the client, so the sender closes the sink on its way out
+        private boolean disconnected;
+        private volatile long sendStartedAt = IDLE;
+
+        Subscriber(Sink sink) {
+            this.sink = sink;
+        }
+
+        // History replayed on subscribe is not held to the buffer size
+        synchronized void replay(List<Event> events) {
+            buffer.addAll(events);
+            if (!buffer.isEmpty()) {
+                draining = true;
+                executor.execute(this::drain);
+            }
+        }
+
+        void offer(List<Event> events) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                for (Event event : events) {
+                    if (buffer.size() >= properties.getBufferSize()) {
+                        overflows.increment();
+                        if (properties.getOverflow() == OverflowPolicy.DISCONNECT) {
+                            log.debug("Feed subscriber {} deals behind, disconnecting", buffer.size());
+                            disconnect();
+                            return;
+                        }
+                        buffer.removeFirst();
+                    }
+                    buffer.addLast(event);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        void heartbeat(long now) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (draining) {
+                    long started = sendStartedAt;
+                    if (started != IDLE && now - started >= properties.getSendTimeout().toNanos()) {
+                        stalls.increment();
+                        log.debug("Feed subscriber blocked since {} ms, disconnecting",
+                                TimeUnit.NANOSECONDS.toMillis(now - started));
+                        disconnect();
+                    }
+                    return;
+                }
+                buffer.addLast(HEARTBEAT);
+                draining = true;
+            }
+            executor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Event event;
+                synchronized (this) {
+                    event = closed ? null : buffer.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        if (!disconnected) {
+                            return;
+                        }
+                    }
+                }
+                if (event == null) {
+                    sink.close();
+                    return;
+                }
+                sendStartedAt = System.nanoTime();
+                try {
+                    sink.send(event);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Feed subscriber gone: {}", e.getMessage());
+                    unsubscribe(this);
+                    return;
+                } finally {
+                    sendStartedAt = IDLE;
+                }
+            }
+        }
+
+        // A sender still at work closes the sink once its send returns, otherwise one is queued to do it
+        private void disconnect() {
+            closed = true;
+            disconnected = true;
+            buffer.clear();
+            subscribers.remove(this);
+            if (!draining) {
+                draining = true;
+                executor.execute(this::drain);
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            buffer.clear();
+        }
+    }
+
+
+    private final class EmitterSink implements Sink {
+
+        private final SseEmitter emitter;
+
+        EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(Event event) throws IOException {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } else if (event == RESET) {
+                emitter.send(SseEmitter.event().name(RESET_EVENT).data("position no longer available"));
+            } else {
+                emitter.send(SseEmitter.event().id(cursorOf(event)).name(DEAL_EVENT).data(event.deal()));
+            }
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.DedupProperties;
+import com.example.datawarehouse.repository.FxDealRepository;
+import com.example.datawarehouse.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of stored deal IDs used to skip database existence checks for IDs
+ * that are definitely new. It only ever answers "definitely absent" or "maybe
+ * present"; a maybe still goes to the database, and the unique index on
+ * {@code deal_unique_id} remains the final arbiter for anything the filter misses
+ * (e.g. rows written by another instance).
+ * <p>
+ * In a cluster only the IDs of this node's hash range are loaded: routed imports
+ * write every ID on its owner, so the filter is complete for that range and sized
+ * for a fraction of the table.
+ * <p>
+ * The filter is warmed from {@code fx_deal_keys} once the application is ready,
+ * and sized from the same table, which keeps the IDs of detached partitions. Until
+ * then every ID is reported as maybe present.
+ */
+@Component
+@Slf4j
+public class DealIdFilter {
+
+    private final FxDealRepository repository;
+    private final DedupProperties properties;
+    private final ClusterMembership membership;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+
+    public DealIdFilter(FxDealRepository repository, DedupProperties properties, ClusterMembership membership,
+                        MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.membership = membership;
+        this.filter = BloomFilter.create(properties.getExpectedInsertions(),
+                properties.getFalsePositiveRate(), properties.getMaxMemory().toBytes());
+
+        this.negatives = lookupCounter(meterRegistry, "negative");
+        this.positives = lookupCounter(meterRegistry, "positive");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        Gauge.builder("fxdeals.dedup.filter.ready", this, f -> f.ready ? 1 : 0)
+                .description("Whether the deal ID filter has been warmed from the database")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.dedup.filter.size", this, f -> f.filter.bitSize() / 8.0)
+                .description("Memory used by the deal ID filter's bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fxdeals.dedup.lookups")
+                .description("Deal ID existence checks by filter outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            log.info("Deal ID filter disabled, every duplicate check goes to the database");
+            return;
+        }
+
+        long stored = repository.countDealUniqueIds();
+        long capacity = Math.max(properties.getExpectedInsertions(), stored * 2 / membership.nodes().size());
+        BloomFilter warmed = BloomFilter.create(capacity,
+                properties.getFalsePositiveRate(), properties.getMaxMemory().toBytes());
+
+        // IDs committed while warming are put into the current filter by the import
+        // path; swap first so they also land in the new one, then load the table
+        filter = warmed;
+        boolean clustered = membership.isClustered();
+        try (Stream<String> ids = repository.streamAllDealUniqueIds()) {
+            ids.filter(id -> !clustered || membership.ownsLocally(id)).forEach(warmed::put);
+        }
+        ready = true;
+
+        log.info("Deal ID filter warmed from {} stored IDs{} ({} bits, {} hashes)", stored,
+                clustered ? ", keeping those owned by node " + membership.self().id() : "",
+                warmed.bitSize(), warmed.hashCount());
+    }
+
+
+    /**
+     * Returns false only if the ID is definitely not stored, in which case the
+     * database lookup can be skipped.
+     */
+    public boolean mightContain(String dealUniqueId) {
+        if (!ready) {
+            return true;
+        }
+        if (filter.mightContain(dealUniqueId)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+
+    /**
+     * Records the outcome of a database lookup for IDs the filter reported as maybe
+     * present, so the observed false-positive rate can be monitored.
+     */
+    public void recordLookup(int candidates, int found) {
+        if (!ready) {
+            return;
+        }
+        positives.increment(found);
+        falsePositives.increment(candidates - found);
+    }
+
+
+    public void put(String dealUniqueId) {
+        if (properties.isEnabled()) {
+            filter.put(dealUniqueId);
+        }
+    }
+}
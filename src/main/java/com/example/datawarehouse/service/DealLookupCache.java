@@ -0,0 +1,154 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.LookupCacheProperties;
+import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.FxDealRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read-through cache of deals by {@code dealUniqueId}. Deals never change once
+ * stored, so found deals stay cached until evicted by size. IDs that were not found
+ * are cached too, for {@code negative-ttl} at most: imports replace them with the
+ * stored deal once they commit, and the expiry covers rows committed by another
+ * instance or while a lookup was in flight.
+ * <p>
+ * Hit and miss counts are published as {@code cache.gets{cache="fxdeals.lookup"}}.
+ */
+@Component
+@Slf4j
+public class DealLookupCache {
+
+    static final String CACHE_NAME = "fxdeals.lookup";
+
+    private final FxDealRepository repository;
+    private final FxDealMapper mapper;
+    private final Cache<String, Optional<FxDealResponse>> cache;
+
+    public DealLookupCache(FxDealRepository repository, FxDealMapper mapper,
+                           LookupCacheProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new NegativeExpiry(properties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+
+    public Optional<FxDealResponse> find(String dealUniqueId) {
+        return cache.get(dealUniqueId, id -> repository.findByDealUniqueId(id).map(mapper::toResponse));
+    }
+
+
+    /**
+     * Resolves many IDs at once; the ones not cached are loaded with a single
+     * {@code IN} query.
+     *
+     * @return the deals found, by ID; IDs that are not stored are absent
+     */
+    public Map<String, FxDealResponse> findAll(Collection<String> dealUniqueIds) {
+        Map<String, FxDealResponse> found = new HashMap<>();
+        cache.getAll(dealUniqueIds, this::loadAll).forEach((id, deal) -> deal.ifPresent(d -> found.put(id, d)));
+        return found;
+    }
+
+
+    /**
+     * Caches deals written by the current transaction once it commits, replacing
+     * any cached miss for their IDs.
+     */
+    public void putImported(List<FxDeal> deals) {
+        if (deals.isEmpty()) {
+            return;
+        }
+        Map<String, Optional<FxDealResponse>> entries = new HashMap<>(deals.size() * 2);
+        for (FxDeal deal : deals) {
+            entries.put(deal.getDealUniqueId(), Optional.of(mapper.toResponse(deal)));
+        }
+        afterCommit(() -> cache.putAll(entries));
+    }
+
+
+    /**
+     * Drops cached entries for IDs written by the current transaction once it
+     * commits, for writers that do not have the stored rows at hand.
+     */
+    public void invalidateImported(Collection<String> dealUniqueIds) {
+        if (!dealUniqueIds.isEmpty()) {
+            afterCommit(() -> cache.invalidateAll(dealUniqueIds));
+        }
+    }
+
+
+    private Map<String, Optional<FxDealResponse>> loadAll(Set<? extends String> dealUniqueIds) {
+        Map<String, Optional<FxDealResponse>> loaded = new HashMap<>(dealUniqueIds.size() * 2);
+        for (FxDeal deal : repository.findByDealUniqueIdIn(List.copyOf(dealUniqueIds))) {
+            loaded.put(deal.getDealUniqueId(), Optional.of(mapper.toResponse(deal)));
+        }
+        for (String id : dealUniqueIds) {
+            loaded.putIfAbsent(id, Optional.empty());
+        }
+        log.debug("Loaded {} of {} deals missing from the lookup cache", loaded.size(), dealUniqueIds.size());
+        return loaded;
+    }
+
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+
+    // Found deals never expire; misses expire negativeTtlNanos after they were cached
+    private static final class NegativeExpiry implements Expiry<String, Optional<FxDealResponse>> {
+
+        private final long negativeTtlNanos;
+
+        NegativeExpiry(long negativeTtlNanos) {
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Optional<FxDealResponse> value, long currentTime) {
+            return value.isPresent() ? Long.MAX_VALUE : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<FxDealResponse> value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<FxDealResponse> value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
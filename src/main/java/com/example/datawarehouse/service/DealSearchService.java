@@ -0,0 +1,114 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.request.DealSearchRequest;
+import com.example.datawarehouse.dto.response.DealSearchResponse;
+import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealSearchRepository;
+import com.example.datawarehouse.repository.DealSearchRepository.Position;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Deal search by currency pair, time range and amount band. Pages follow
+ * {@code (dealTimestamp, id)} order and are addressed by an opaque cursor, so
+ * fetching a page costs the same however deep it is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DealSearchService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Pattern CURRENCY = Pattern.compile("^[A-Z]{3}$");
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final DealSearchRepository searchRepository;
+    private final FxDealMapper mapper;
+
+    @Transactional(readOnly = true)
+    public DealSearchResponse search(DealSearchRequest criteria, String cursor, int size) {
+        DealSearchRequest normalized = normalize(criteria);
+        int pageSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+        Position after = cursor != null && !cursor.isEmpty() ? decodeCursor(cursor) : null;
+
+        log.debug("Searching deals matching {} after {}", normalized, after);
+        // One extra row tells whether another page follows
+        List<FxDeal> deals = searchRepository.search(normalized, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (deals.size() > pageSize) {
+            deals = deals.subList(0, pageSize);
+            FxDeal last = deals.get(pageSize - 1);
+            nextCursor = encodeCursor(new Position(last.getDealTimestamp(), last.getId()));
+        }
+
+        List<FxDealResponse> page = deals.stream().map(mapper::toResponse).toList();
+        return DealSearchResponse.builder()
+                .deals(page)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+
+    private static DealSearchRequest normalize(DealSearchRequest criteria) {
+        DealSearchRequest normalized = DealSearchRequest.builder()
+                .fromCurrency(normalizeCurrency(criteria.getFromCurrency(), "fromCurrency"))
+                .toCurrency(normalizeCurrency(criteria.getToCurrency(), "toCurrency"))
+                .timestampFrom(criteria.getTimestampFrom())
+                .timestampTo(criteria.getTimestampTo())
+                .minAmount(criteria.getMinAmount())
+                .maxAmount(criteria.getMaxAmount())
+                .build();
+
+        if (normalized.getTimestampFrom() != null && normalized.getTimestampTo() != null
+                && !normalized.getTimestampFrom().isBefore(normalized.getTimestampTo())) {
+            throw new InvalidRequestParameterException("timestampFrom must be before timestampTo");
+        }
+        if (normalized.getMinAmount() != null && normalized.getMaxAmount() != null
+                && normalized.getMinAmount().compareTo(normalized.getMaxAmount()) > 0) {
+            throw new InvalidRequestParameterException("minAmount must not exceed maxAmount");
+        }
+        return normalized;
+    }
+
+    private static String normalizeCurrency(String currency, String parameter) {
+        if (currency == null || currency.isEmpty()) {
+            return null;
+        }
+        String normalized = currency.toUpperCase(Locale.ROOT);
+        if (!CURRENCY.matcher(normalized).matches()) {
+            throw new InvalidRequestParameterException(parameter + " must be a 3-letter ISO code");
+        }
+        return normalized;
+    }
+
+
+    static String encodeCursor(Position position) {
+        String raw = position.dealTimestamp().toString() + CURSOR_SEPARATOR + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            return new Position(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestParameterException("cursor is invalid");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.response.PairStatsResponse;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.model.StatsBucket;
+import com.example.datawarehouse.repository.DealRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Currency-pair totals served from the hourly rollups, so the cost of a query
+ * depends on the number of buckets asked for, not on the number of deals stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DealStatsService {
+
+    private static final Pattern PAIR = Pattern.compile("^[A-Z]{3}/[A-Z]{3}$");
+
+    private final DealRollupRepository rollupRepository;
+
+    @Transactional(readOnly = true)
+    public PairStatsResponse getPairStats(String pair, String bucket, LocalDateTime from, LocalDateTime to) {
+        String normalizedPair = pair.toUpperCase(Locale.ROOT);
+        if (!PAIR.matcher(normalizedPair).matches()) {
+            throw new InvalidRequestParameterException("pair must look like USD/EUR");
+        }
+        StatsBucket statsBucket = StatsBucket.fromCode(bucket)
+                .orElseThrow(() -> new InvalidRequestParameterException("bucket must be 1h or 1d"));
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestParameterException("from must be before to");
+        }
+
+        log.debug("Fetching {} stats for {} in [{}, {})", statsBucket.getCode(), normalizedPair, from, to);
+        String[] currencies = normalizedPair.split("/");
+        return PairStatsResponse.builder()
+                .pair(normalizedPair)
+                .bucket(statsBucket.getCode())
+                .buckets(rollupRepository.findTotals(currencies[0], currencies[1], statsBucket, from, to))
+                .build();
+    }
+}
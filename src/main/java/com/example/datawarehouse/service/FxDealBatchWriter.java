@@ -0,0 +1,95 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealRollupRepository;
+import com.example.datawarehouse.repository.FxDealRepository;
+import com.example.datawarehouse.service.ImportMetrics.Stage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Writes one chunk of deals in a single transaction: one set-based lookup for
+ * IDs that may already exist, then one batched insert for the rest. IDs that
+ * {@link DealIdFilter} reports as definitely new are not looked up at all.
+ * Lives in its own bean so the transaction boundary is applied through the proxy.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealBatchWriter {
+
+    private final FxDealRepository repository;
+    private final FxDealMapper mapper;
+    private final DealIdFilter dealIdFilter;
+    private final DealRollupRepository rollupRepository;
+    private final DealLookupCache lookupCache;
+    private final DealFeed dealFeed;
+    private final ImportMetrics metrics;
+
+    /**
+     * Persists every deal of the chunk whose ID is not stored yet.
+     * The chunk must not contain the same deal ID twice.
+     *
+     * @return the IDs that were already present and therefore skipped
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Set<String> writeChunk(List<FxDealRequest> chunk) {
+        return write(chunk, FxDealRequest::getDealUniqueId, mapper::toEntity);
+    }
+
+
+    /**
+     * Same as {@link #writeChunk(List)} for deals decoded straight into entities.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Set<String> writeDeals(List<FxDeal> chunk) {
+        // A deal retried after its chunk failed may still carry the ID assigned by that attempt
+        return write(chunk, FxDeal::getDealUniqueId, deal -> {
+            deal.setId(null);
+            return deal;
+        });
+    }
+
+
+    private <T> Set<String> write(List<T> chunk, Function<T, String> idOf, Function<T, FxDeal> toEntity) {
+        List<String> candidates = chunk.stream()
+                .map(idOf)
+                .filter(dealIdFilter::mightContain)
+                .toList();
+
+        Set<String> existing = candidates.isEmpty()
+                ? Set.of()
+                : metrics.time(Stage.DEDUP, () -> new HashSet<>(repository.findExistingDealUniqueIds(candidates)));
+        dealIdFilter.recordLookup(candidates.size(), existing.size());
+
+        List<FxDeal> deals = new ArrayList<>(chunk.size() - existing.size());
+        for (T item : chunk) {
+            if (!existing.contains(idOf.apply(item))) {
+                deals.add(toEntity.apply(item));
+            }
+        }
+
+        metrics.time(Stage.INSERT, () -> {
+            repository.saveAll(deals);
+            repository.flush();
+        });
+        metrics.time(Stage.ROLLUP, () -> rollupRepository.addDeals(deals));
+        metrics.timeCommit();
+        deals.forEach(deal -> dealIdFilter.put(deal.getDealUniqueId()));
+        lookupCache.putImported(deals);
+        dealFeed.publishAfterCommit(deals);
+
+        log.debug("Chunk written: {} inserted, {} already present", deals.size(), existing.size());
+        return existing;
+    }
+}
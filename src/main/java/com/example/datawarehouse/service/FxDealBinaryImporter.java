@@ -0,0 +1,87 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.InvalidDealException;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.service.ImportMetrics.Stage;
+import com.example.datawarehouse.util.FxDealBinaryFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports a {@link FxDealBinaryFormat} payload. Records are decoded straight into
+ * entities and written in chunks as they are read, like the streaming JSON import:
+ * the first invalid deal stops the import and chunks committed before it are kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealBinaryImporter {
+
+    private final FxDealService service;
+    private final ImportProperties importProperties;
+    private final ImportMetrics metrics;
+
+    public ImportSummaryResponse importBinary(InputStream body) throws IOException {
+        log.info("Starting binary import");
+
+        ImportSummaryResponse summary =
+                ImportSummaryResponse.withSpilledErrors(importProperties.getMaxErrorsInMemory());
+        try {
+            importInto(body, summary);
+        } catch (IOException | RuntimeException e) {
+            // Nobody gets the summary, so its spill file is deleted here
+            summary.close();
+            throw e;
+        }
+
+        log.info("Binary import completed: {} imported, {} skipped", summary.getImported(), summary.getSkipped());
+        return summary;
+    }
+
+
+    private void importInto(InputStream body, ImportSummaryResponse summary) throws IOException {
+        int batchSize = Math.max(1, importProperties.getBatchSize());
+        List<FxDeal> chunk = new ArrayList<>(batchSize);
+        // Decoding includes validation, so both are timed as the parse stage
+        long decodeNanos = 0;
+        try {
+            FxDealBinaryFormat.Reader reader = new FxDealBinaryFormat.Reader(body);
+            while (true) {
+                long start = System.nanoTime();
+                FxDeal deal = reader.next();
+                decodeNanos += System.nanoTime() - start;
+                if (deal == null) {
+                    break;
+                }
+                chunk.add(deal);
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, summary);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (InvalidDealException e) {
+            metrics.recordInvalid();
+            throw e;
+        } finally {
+            metrics.record(Stage.PARSE, decodeNanos);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, summary);
+        }
+    }
+
+
+    private void importChunk(List<FxDeal> chunk, ImportSummaryResponse summary) {
+        List<String> reasons = service.importEntityChunk(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            summary.record(chunk.get(i).getDealUniqueId(), reasons.get(i));
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealRollupRepository;
+import com.example.datawarehouse.service.ImportMetrics.Stage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk-load import mode for very large imports. Each chunk is sent with
+ * {@code COPY ... FROM STDIN} into a staging table that lives for one transaction,
+ * then merged into {@code fx_deals} by a single statement: IDs not stored yet are
+ * claimed in {@code fx_deal_keys} with {@code ON CONFLICT DO NOTHING}, and only the
+ * rows whose ID was claimed are inserted. Every other row is reported as a duplicate.
+ * <p>
+ * Row IDs are taken from {@code fx_deals_seq} in the blocks Hibernate's pooled
+ * optimizer uses, so this path can run alongside the batched JPA path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealCopyLoader {
+
+    private static final String NEXT_ID_BLOCKS = "SELECT nextval('fx_deals_seq') FROM generate_series(1, ?)";
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE fx_deals_staging (
+                id                      BIGINT         NOT NULL,
+                deal_unique_id          VARCHAR(100)   NOT NULL,
+                from_currency_iso_code  VARCHAR(3)     NOT NULL,
+                to_currency_iso_code    VARCHAR(3)     NOT NULL,
+                deal_timestamp          TIMESTAMP(6)   NOT NULL,
+                deal_amount             NUMERIC(19, 4) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING = "COPY fx_deals_staging (id, deal_unique_id, from_currency_iso_code, "
+            + "to_currency_iso_code, deal_timestamp, deal_amount) FROM STDIN (FORMAT csv)";
+
+    // Keys are registered here, so the per-row trigger is told to leave them alone (V3 migration)
+    private static final String SKIP_KEY_TRIGGER = "SELECT set_config('fxdeals.keys_registered', 'on', true)";
+
+    // IDs follow chunk order, so DISTINCT ON keeps the first occurrence of a repeated deal ID
+    private static final String MERGE = """
+            WITH claimed AS (
+                INSERT INTO fx_deal_keys (deal_unique_id)
+                SELECT DISTINCT deal_unique_id FROM fx_deals_staging ORDER BY deal_unique_id
+                ON CONFLICT DO NOTHING
+                RETURNING deal_unique_id
+            )
+            INSERT INTO fx_deals (id, deal_unique_id, from_currency_iso_code, to_currency_iso_code,
+                                  deal_timestamp, deal_amount, created_at)
+            SELECT DISTINCT ON (s.deal_unique_id)
+                   s.id, s.deal_unique_id, s.from_currency_iso_code, s.to_currency_iso_code,
+                   s.deal_timestamp, s.deal_amount, now()
+            FROM fx_deals_staging s
+            JOIN claimed c ON c.deal_unique_id = s.deal_unique_id
+            ORDER BY s.deal_unique_id, s.id
+            RETURNING id
+            """;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FxDealMapper mapper;
+    private final DealIdFilter dealIdFilter;
+    private final DealRollupRepository rollupRepository;
+    private final DealLookupCache lookupCache;
+    private final DealFeed dealFeed;
+    private final ImportProperties importProperties;
+    private final ImportMetrics metrics;
+
+    /**
+     * Loads deals pulled one at a time from {@code deals}, which must already be
+     * validated. At most one chunk is held in memory; an exception thrown by the
+     * iterator stops the load and keeps the chunks committed before it.
+     */
+    public ImportSummaryResponse load(Iterator<FxDealRequest> deals) {
+        return load(deals, ImportSummaryResponse.withSpilledErrors(importProperties.getMaxErrorsInMemory()));
+    }
+
+
+    /**
+     * Same as {@link #load(Iterator)}, recording into {@code summary}, which the
+     * iterator may also write to while it is consumed.
+     */
+    public ImportSummaryResponse load(Iterator<FxDealRequest> deals, ImportSummaryResponse summary) {
+        log.info("Starting bulk-load import");
+
+        int chunkSize = Math.max(1, importProperties.getCopyChunkSize());
+        List<FxDealRequest> chunk = new ArrayList<>(Math.min(chunkSize, 10_000));
+        while (deals.hasNext()) {
+            chunk.add(deals.next());
+            if (chunk.size() == chunkSize) {
+                loadChunk(chunk, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            loadChunk(chunk, summary);
+        }
+
+        log.info("Bulk-load import completed: {} imported, {} skipped", summary.getImported(), summary.getSkipped());
+        return summary;
+    }
+
+
+    private void loadChunk(List<FxDealRequest> chunk, ImportSummaryResponse summary) {
+        List<String> reasons = loadChunk(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            summary.record(chunk.get(i).getDealUniqueId(), reasons.get(i));
+        }
+    }
+
+
+    /**
+     * Copies and merges one chunk in a single transaction.
+     *
+     * @return for each deal of the chunk, in order, the reason it was skipped or
+     *         null if it was imported
+     */
+    List<String> loadChunk(List<FxDealRequest> chunk) {
+        long[] ids = allocateIds(chunk.size());
+
+        Set<Long> inserted = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(CREATE_STAGING);
+            metrics.time(Stage.COPY, () -> copyToStaging(chunk, ids));
+            jdbcTemplate.queryForObject(SKIP_KEY_TRIGGER, String.class);
+            Set<Long> insertedIds = metrics.time(Stage.MERGE,
+                    () -> new HashSet<>(jdbcTemplate.queryForList(MERGE, Long.class)));
+
+            List<FxDeal> deals = new ArrayList<>(insertedIds.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (insertedIds.contains(ids[i])) {
+                    FxDeal deal = mapper.toEntity(chunk.get(i));
+                    deal.setId(ids[i]);
+                    deals.add(deal);
+                }
+            }
+            metrics.time(Stage.ROLLUP, () -> rollupRepository.addDeals(deals));
+            // created_at is set by the database, so the deals are cached on their first lookup
+            lookupCache.invalidateImported(deals.stream().map(FxDeal::getDealUniqueId).toList());
+            dealFeed.publishAfterCommit(deals);
+            metrics.timeCommit();
+            return insertedIds;
+        });
+
+        List<String> reasons = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (inserted.contains(ids[i])) {
+                dealIdFilter.put(chunk.get(i).getDealUniqueId());
+                reasons.add(null);
+            } else {
+                reasons.add(FxDealService.DUPLICATE_REASON);
+            }
+        }
+
+        metrics.recordOutcomes(reasons);
+        log.debug("Chunk loaded: {} inserted, {} skipped", inserted.size(), chunk.size() - inserted.size());
+        return reasons;
+    }
+
+
+    /**
+     * Reserves {@code count} row IDs. Each sequence value {@code hi} stands for the
+     * block {@code hi - 49 .. hi}, as in Hibernate's pooled optimizer. The first two
+     * values are skipped: on an empty sequence Hibernate may claim {@code 1 .. hi}
+     * of its second call, which would overlap their blocks.
+     */
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int assigned = 0;
+        while (assigned < count) {
+            int blocks = (count - assigned + FxDeal.ID_ALLOCATION_SIZE - 1) / FxDeal.ID_ALLOCATION_SIZE;
+            for (Long hi : jdbcTemplate.queryForList(NEXT_ID_BLOCKS, Long.class, blocks)) {
+                if (hi <= FxDeal.ID_ALLOCATION_SIZE + 1) {
+                    continue;
+                }
+                for (long id = hi - FxDeal.ID_ALLOCATION_SIZE + 1; id <= hi && assigned < count; id++) {
+                    ids[assigned++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+
+    private void copyToStaging(List<FxDealRequest> chunk, long[] ids) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(pgConnection, COPY_STAGING), StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    writeRow(writer, ids[i], chunk.get(i));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY into staging table failed", e);
+            }
+            return null;
+        });
+    }
+
+
+    static void writeRow(Writer writer, long id, FxDealRequest deal) throws IOException {
+        writer.write(Long.toString(id));
+        writer.write(',');
+        writeQuoted(writer, deal.getDealUniqueId());
+        writer.write(',');
+        writeQuoted(writer, deal.getFromCurrencyIsoCode());
+        writer.write(',');
+        writeQuoted(writer, deal.getToCurrencyIsoCode());
+        writer.write(',');
+        writer.write(deal.getDealTimestamp().toString());
+        writer.write(',');
+        writer.write(deal.getDealAmount().toPlainString());
+        writer.write('\n');
+    }
+
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.PartitionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the monthly range partitions of {@code fx_deals}. Partitions from
+ * {@code backfillMonths} back to {@code premakeMonths} ahead are created before the
+ * application starts serving and then once a day; partitions older than
+ * {@code retentionMonths} are detached and left in place as standalone tables.
+ * <p>
+ * A new partition may overlap rows that already landed in the default partition,
+ * so those rows are moved into it before it is attached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealPartitionManager implements InitializingBean {
+
+    static final String PARENT_TABLE = "fx_deals";
+    static final String DEFAULT_PARTITION = "fx_deals_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionProperties properties;
+
+    @Override
+    public void afterPropertiesSet() {
+        maintainPartitions();
+    }
+
+
+    @Scheduled(cron = "${fxdeals.partitioning.maintenance-cron:0 0 1 * * *}")
+    public void maintainPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        Set<String> existing = attachedPartitions();
+
+        for (YearMonth month = current.minusMonths(properties.getBackfillMonths());
+             !month.isAfter(current.plusMonths(properties.getPremakeMonths()));
+             month = month.plusMonths(1)) {
+            if (!existing.contains(partitionName(month))) {
+                createPartition(month);
+            }
+        }
+
+        if (properties.getRetentionMonths() > 0) {
+            YearMonth oldestKept = current.minusMonths(properties.getRetentionMonths());
+            expiredPartitions(existing, oldestKept).forEach(this::detachPartition);
+        }
+    }
+
+
+    private Set<String> attachedPartitions() {
+        return Set.copyOf(jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = CAST(? AS regclass)
+                """, String.class, PARENT_TABLE));
+    }
+
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1).atStartOfDay().toString();
+        String to = month.plusMonths(1).atDay(1).atStartOfDay().toString();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + name
+                        + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                int moved = jdbcTemplate.update("INSERT INTO " + name + " SELECT * FROM " + DEFAULT_PARTITION
+                        + " WHERE deal_timestamp >= ? AND deal_timestamp < ?",
+                        LocalDateTime.parse(from), LocalDateTime.parse(to));
+                if (moved > 0) {
+                    jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION
+                            + " WHERE deal_timestamp >= ? AND deal_timestamp < ?",
+                            LocalDateTime.parse(from), LocalDateTime.parse(to));
+                    log.info("Moved {} deals from {} into {}", moved, DEFAULT_PARTITION, name);
+                }
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + name
+                        + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            });
+            log.info("Created partition {} for [{}, {})", name, from, to);
+        } catch (DataAccessException e) {
+            log.error("Could not create partition {}: {}", name, e.getMessage());
+        }
+    }
+
+
+    private void detachPartition(String name) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+            log.info("Detached expired partition {}", name);
+        } catch (DataAccessException e) {
+            log.error("Could not detach partition {}: {}", name, e.getMessage());
+        }
+    }
+
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + SUFFIX.format(month);
+    }
+
+
+    static Optional<YearMonth> partitionMonth(String name) {
+        String prefix = PARENT_TABLE + "_p";
+        if (!name.startsWith(prefix)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(name.substring(prefix.length()), SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+
+    /**
+     * Monthly partitions whose whole range lies before {@code oldestKept}. The
+     * default partition is never expired.
+     */
+    static List<String> expiredPartitions(Set<String> partitions, YearMonth oldestKept) {
+        return partitions.stream()
+                .filter(name -> partitionMonth(name).filter(month -> month.isBefore(oldestKept)).isPresent())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
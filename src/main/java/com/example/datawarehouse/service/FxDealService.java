@@ -1,28 +1,69 @@
 package com.example.datawarehouse.service;
 
+import com.example.datawarehouse.config.ImportProperties;
 import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.DealLookupResponse;
+import com.example.datawarehouse.dto.response.DealPageResponse;
 import com.example.datawarehouse.dto.response.FxDealResponse;
 import com.example.datawarehouse.dto.response.ImportSummaryResponse;
 import com.example.datawarehouse.exception.DuplicateDealException;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
 import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealRollupRepository;
 import com.example.datawarehouse.repository.FxDealRepository;
 import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.util.LogSampler;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FxDealService {
 
+    static final String DUPLICATE_REASON = "Duplicate entry";
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_LOOKUP_IDS = 1000;
+    private static final Duration SKIP_LOG_INTERVAL = Duration.ofSeconds(10);
+
     private final FxDealRepository repository;
     private final FxDealMapper mapper;
+    private final FxDealBatchWriter batchWriter;
+    private final DealIdFilter dealIdFilter;
+    private final DealRollupRepository rollupRepository;
+    private final DealLookupCache lookupCache;
+    private final DealFeed dealFeed;
+    private final ImportAdmission admission;
+    private final ImportProperties importProperties;
+    private final EntityManager entityManager;
+    private final ImportMetrics metrics;
+    private final LogSampler skipLogSampler = new LogSampler(SKIP_LOG_INTERVAL);
 
     public ImportSummaryResponse importDeals(List<FxDealRequest> requests) {
+        return importDeals(requests, ImportProgressListener.NONE);
+    }
+
+
+    public ImportSummaryResponse importDeals(List<FxDealRequest> requests, ImportProgressListener listener) {
         log.info("Starting import of {} deals", requests.size());
 
         ImportSummaryResponse summary = ImportSummaryResponse.builder()
@@ -30,57 +71,261 @@ public class FxDealService {
                 .skipped(0)
                 .build();
 
-        for (FxDealRequest request : requests) {
-            try {
-                saveDeal(request);
-                summary.setImported(summary.getImported() + 1);
-                log.debug("Successfully imported deal: {}", request.getDealUniqueId());
-
-            } catch (DuplicateDealException e) {
-                summary.setSkipped(summary.getSkipped() + 1);
-                summary.getErrors().add(ImportSummaryResponse.ErrorDetail.builder()
-                        .dealUniqueId(request.getDealUniqueId())
-                        .reason("Duplicate entry")
-                        .build());
-                log.warn("Skipped duplicate deal: {}", request.getDealUniqueId());
+        // The chunk size is read again for every chunk, as the admission tuning moves it
+        int from = 0;
+        while (from < requests.size()) {
+            int batchSize = admission.batchSize();
+            int to = Math.min(from + batchSize, requests.size());
+            importChunk(requests.subList(from, to), summary, to - from == batchSize);
+            listener.onProgress(summary.getImported(), summary.getSkipped());
+            from = to;
+        }
 
-            } catch (Exception e) {
-                summary.setSkipped(summary.getSkipped() + 1);
-                summary.getErrors().add(ImportSummaryResponse.ErrorDetail.builder()
-                        .dealUniqueId(request.getDealUniqueId())
-                        .reason(e.getMessage())
-                        .build());
-                log.error("Failed to import deal {}: {}", request.getDealUniqueId(), e.getMessage());
+        log.info("Import completed: {} imported, {} skipped", summary.getImported(), summary.getSkipped());
+        return summary;
+    }
+
+
+    /**
+     * Imports deals pulled one at a time from {@code deals}, holding at most one
+     * chunk in memory. An exception thrown by the iterator stops the import; chunks
+     * committed before it are kept.
+     */
+    public ImportSummaryResponse importDeals(Iterator<FxDealRequest> deals) {
+        return importDeals(deals, ImportSummaryResponse.withSpilledErrors(importProperties.getMaxErrorsInMemory()));
+    }
+
+
+    /**
+     * Same as {@link #importDeals(Iterator)}, recording into {@code summary}, which
+     * the iterator may also write to while it is consumed.
+     */
+    public ImportSummaryResponse importDeals(Iterator<FxDealRequest> deals, ImportSummaryResponse summary) {
+        log.info("Starting streaming import");
+
+        int batchSize = admission.batchSize();
+        List<FxDealRequest> chunk = new ArrayList<>(batchSize);
+        while (deals.hasNext()) {
+            chunk.add(deals.next());
+            if (chunk.size() >= batchSize) {
+                importChunk(chunk, summary, true);
+                chunk.clear();
+                batchSize = admission.batchSize();
             }
         }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, summary, false);
+        }
 
-        log.info("Import completed: {} imported, {} skipped", summary.getImported(), summary.getSkipped());
+        log.info("Streaming import completed: {} imported, {} skipped", summary.getImported(), summary.getSkipped());
         return summary;
     }
 
 
+    // Only chunks of the size the admission handed out tell it something about load
+    private void importChunk(List<FxDealRequest> chunk, ImportSummaryResponse summary, boolean sampled) {
+        List<String> reasons = importChunk(chunk, FxDealRequest::getDealUniqueId, batchWriter::writeChunk, sampled);
+        for (int i = 0; i < chunk.size(); i++) {
+            summary.record(chunk.get(i).getDealUniqueId(), reasons.get(i));
+        }
+    }
+
+
+    /**
+     * Imports one chunk in a single transaction. Repeated IDs inside the chunk are
+     * skipped before hitting the database; IDs repeated across chunks are caught by
+     * the existence lookup of the later chunk. The chunk size is the caller's, so
+     * the chunk is not timed for the admission tuning.
+     *
+     * @return for each deal of the chunk, in order, the reason it was skipped or
+     *         null if it was imported
+     */
+    public List<String> importChunk(List<FxDealRequest> chunk) {
+        return importChunk(chunk, FxDealRequest::getDealUniqueId, batchWriter::writeChunk, false);
+    }
+
+
+    /**
+     * Same as {@link #importChunk(List)} for deals decoded straight into entities,
+     * as done by {@link FxDealBinaryImporter}.
+     */
+    public List<String> importEntityChunk(List<FxDeal> chunk) {
+        return importChunk(chunk, FxDeal::getDealUniqueId, batchWriter::writeDeals, false);
+    }
+
+
+    private <T> List<String> importChunk(List<T> chunk, Function<T, String> idOf,
+                                         Function<List<T>, Set<String>> writer, boolean sampled) {
+        Set<String> seen = new HashSet<>();
+        List<T> unique = new ArrayList<>(chunk.size());
+        for (T deal : chunk) {
+            if (seen.add(idOf.apply(deal))) {
+                unique.add(deal);
+            }
+        }
+
+        Map<String, String> rejected = new HashMap<>();
+        try {
+            long start = System.nanoTime();
+            Set<String> duplicates = writer.apply(unique);
+            // Only whole-chunk commits are timed; the deal by deal fallback says nothing about load
+            if (sampled) {
+                admission.recordChunk(unique.size(), System.nanoTime() - start);
+            }
+            duplicates.forEach(id -> rejected.put(id, DUPLICATE_REASON));
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} deals failed ({}), retrying deal by deal", unique.size(), e.getMessage());
+            rejected.putAll(writeIndividually(unique, idOf, writer));
+        }
+
+        Set<String> accepted = new HashSet<>();
+        List<String> reasons = new ArrayList<>(chunk.size());
+        String firstSkipped = null;
+        for (T deal : chunk) {
+            String dealUniqueId = idOf.apply(deal);
+            String reason = rejected.get(dealUniqueId);
+
+            if (reason == null && !accepted.add(dealUniqueId)) {
+                reason = DUPLICATE_REASON;
+            }
+            if (reason != null && firstSkipped == null) {
+                firstSkipped = dealUniqueId + ": " + reason;
+            }
+            reasons.add(reason);
+        }
+
+        metrics.recordOutcomes(reasons);
+        if (firstSkipped != null) {
+            logSkipped(chunk.size() - accepted.size(), chunk.size(), firstSkipped);
+        }
+        return reasons;
+    }
+
+
+    // Skips are counted by ImportMetrics; the log only gets a sampled example
+    private void logSkipped(int skipped, int chunkSize, String example) {
+        long suppressed = skipLogSampler.tryAcquire();
+        if (suppressed >= 0) {
+            log.warn("Skipped {} of {} deals in chunk (first: {}); {} similar messages suppressed",
+                    skipped, chunkSize, example, suppressed);
+        } else {
+            log.debug("Skipped {} of {} deals in chunk (first: {})", skipped, chunkSize, example);
+        }
+    }
+
+
+    /**
+     * Fallback used when a whole chunk could not be committed, typically because a
+     * concurrent import inserted one of its IDs in the meantime. Each deal gets its
+     * own transaction so one bad row cannot reject the others.
+     */
+    private <T> Map<String, String> writeIndividually(List<T> deals, Function<T, String> idOf,
+                                                      Function<List<T>, Set<String>> writer) {
+        Map<String, String> rejected = new HashMap<>();
+        for (T deal : deals) {
+            String dealUniqueId = idOf.apply(deal);
+            try {
+                if (!writer.apply(List.of(deal)).isEmpty()) {
+                    rejected.put(dealUniqueId, DUPLICATE_REASON);
+                }
+            } catch (DataIntegrityViolationException e) {
+                rejected.put(dealUniqueId, DUPLICATE_REASON);
+            } catch (Exception e) {
+                rejected.put(dealUniqueId, String.valueOf(e.getMessage()));
+                log.error("Failed to import deal {}: {}", dealUniqueId, e.getMessage());
+            }
+        }
+        return rejected;
+    }
+
+
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public FxDealResponse saveDeal(FxDealRequest request) {
         log.debug("Attempting to save deal: {}", request.getDealUniqueId());
 
-        if (repository.existsByDealUniqueId(request.getDealUniqueId())) {
-            throw new DuplicateDealException(request.getDealUniqueId());
+        if (dealIdFilter.mightContain(request.getDealUniqueId())) {
+            boolean exists = repository.existsByDealUniqueId(request.getDealUniqueId());
+            dealIdFilter.recordLookup(1, exists ? 1 : 0);
+            if (exists) {
+                throw new DuplicateDealException(request.getDealUniqueId());
+            }
         }
 
         FxDeal deal = mapper.toEntity(request);
         FxDeal savedDeal = repository.save(deal);
+        rollupRepository.addDeals(List.of(savedDeal));
+        dealIdFilter.put(savedDeal.getDealUniqueId());
+        lookupCache.putImported(List.of(savedDeal));
+        dealFeed.publishAfterCommit(List.of(savedDeal));
 
-        log.info("Deal saved successfully: {}", savedDeal.getDealUniqueId());
+        log.debug("Deal saved successfully: {}", savedDeal.getDealUniqueId());
         return mapper.toResponse(savedDeal);
     }
 
 
+    public Optional<FxDealResponse> findDeal(String dealUniqueId) {
+        return lookupCache.find(dealUniqueId);
+    }
+
+
+    /**
+     * Looks up at most {@value #MAX_LOOKUP_IDS} deals at once.
+     */
+    public DealLookupResponse findDeals(List<String> dealUniqueIds) {
+        if (dealUniqueIds.size() > MAX_LOOKUP_IDS) {
+            throw new InvalidRequestParameterException("at most " + MAX_LOOKUP_IDS + " IDs can be looked up at once");
+        }
+        Map<String, FxDealResponse> found = lookupCache.findAll(dealUniqueIds);
+
+        List<FxDealResponse> deals = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String dealUniqueId : new LinkedHashSet<>(dealUniqueIds)) {
+            FxDealResponse deal = found.get(dealUniqueId);
+            if (deal != null) {
+                deals.add(deal);
+            } else {
+                missing.add(dealUniqueId);
+            }
+        }
+        return DealLookupResponse.builder()
+                .deals(deals)
+                .missing(missing)
+                .build();
+    }
+
+
     @Transactional(readOnly = true)
-    public List<FxDealResponse> getAllDeals() {
-        log.debug("Fetching all deals");
-        return repository.findAll()
+    public DealPageResponse getDealsPage(long afterId, int size) {
+        int pageSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+        log.debug("Fetching {} deals after id {}", pageSize, afterId);
+
+        List<FxDealResponse> deals = repository
+                .findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(pageSize))
                 .stream()
                 .map(mapper::toResponse)
                 .toList();
+
+        Long nextAfterId = deals.size() == pageSize ? deals.get(deals.size() - 1).getId() : null;
+        return DealPageResponse.builder()
+                .deals(deals)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+
+    /**
+     * Hands every stored deal to {@code consumer} in ID order, reading through a
+     * server-side cursor. Each entity is detached once mapped so the persistence
+     * context does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllDeals(Consumer<FxDealResponse> consumer) {
+        log.debug("Streaming all deals");
+        try (Stream<FxDeal> deals = repository.streamAllOrderById()) {
+            deals.forEach(deal -> {
+                consumer.accept(mapper.toResponse(deal));
+                entityManager.detach(deal);
+            });
+        }
     }
 }
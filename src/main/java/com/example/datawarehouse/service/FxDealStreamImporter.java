@@ -0,0 +1,198 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.InvalidDealException;
+import com.example.datawarehouse.service.ImportMetrics.Stage;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Imports deals from a request body without binding it to a list first. Accepts a
+ * JSON array or newline-delimited JSON objects; each deal is parsed, validated and
+ * handed to {@link FxDealService} as it is read, so memory stays bounded by one chunk.
+ * <p>
+ * By default the first invalid deal stops the import. In lenient mode invalid deals
+ * are skipped and reported in the summary with their index and violations, and the
+ * valid ones are imported. A body that cannot be parsed still stops the import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealStreamImporter {
+
+    private static final List<String> NULL_DEAL = List.of("Deal must not be null");
+
+    private final ObjectMapper objectMapper;
+    private final FxDealRequestValidator validator;
+    private final FxDealService service;
+    private final FxDealCopyLoader copyLoader;
+    private final ImportProperties importProperties;
+    private final ImportMetrics metrics;
+
+    public ImportSummaryResponse importStream(InputStream body) throws IOException {
+        return importStream(body, false, false);
+    }
+
+
+    /**
+     * With {@code bulk}, validated deals are loaded through {@link FxDealCopyLoader}
+     * instead of the batched JPA path. With {@code lenient}, invalid deals are
+     * reported instead of stopping the import.
+     */
+    public ImportSummaryResponse importStream(InputStream body, boolean bulk, boolean lenient) throws IOException {
+        try (MappingIterator<FxDealRequest> deals = objectMapper.readerFor(FxDealRequest.class).readValues(body)) {
+            ParsingIterator parsed = new ParsingIterator(deals);
+            try {
+                return importValidated(parsed, bulk, lenient);
+            } finally {
+                metrics.record(Stage.PARSE, parsed.parseNanos);
+            }
+        }
+    }
+
+
+    /**
+     * Lenient import of an already bound request body, through the batched path.
+     */
+    public ImportSummaryResponse importLenient(List<FxDealRequest> requests) {
+        return importValidated(requests.iterator(), false, true);
+    }
+
+
+    private ImportSummaryResponse importValidated(Iterator<FxDealRequest> deals, boolean bulk, boolean lenient) {
+        ImportSummaryResponse summary =
+                ImportSummaryResponse.withSpilledErrors(importProperties.getMaxErrorsInMemory());
+        ValidatingIterator validated = new ValidatingIterator(deals, lenient ? summary : null);
+        try {
+            return bulk ? copyLoader.load(validated, summary) : service.importDeals(validated, summary);
+        } catch (RuntimeException e) {
+            // Nobody gets the summary, so its spill file is deleted here
+            summary.close();
+            throw e;
+        } finally {
+            metrics.record(Stage.VALIDATE, validated.validateNanos);
+            if (validated.rejected > 0) {
+                log.warn("Skipped {} invalid deals in lenient import", validated.rejected);
+            }
+        }
+    }
+
+
+    private class ParsingIterator implements Iterator<FxDealRequest> {
+
+        private final MappingIterator<FxDealRequest> source;
+        private int index;
+        private long parseNanos;
+
+        ParsingIterator(MappingIterator<FxDealRequest> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long start = System.nanoTime();
+            try {
+                return source.hasNextValue();
+            } catch (JsonProcessingException e) {
+                throw malformed(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                parseNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public FxDealRequest next() {
+            long start = System.nanoTime();
+            try {
+                FxDealRequest deal = source.nextValue();
+                index++;
+                return deal;
+            } catch (JsonProcessingException e) {
+                throw malformed(e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                parseNanos += System.nanoTime() - start;
+            }
+        }
+
+        private InvalidDealException malformed(JsonProcessingException e) {
+            metrics.recordInvalid();
+            return new InvalidDealException(index, List.of(e.getOriginalMessage()));
+        }
+    }
+
+
+    /**
+     * Yields the valid deals of {@code source}. An invalid deal is recorded in
+     * {@code lenientSummary} and skipped, or throws when there is none.
+     */
+    private class ValidatingIterator implements Iterator<FxDealRequest> {
+
+        private final Iterator<FxDealRequest> source;
+        private final ImportSummaryResponse lenientSummary;
+        private FxDealRequest pending;
+        private int index;
+        private int rejected;
+        private long validateNanos;
+
+        ValidatingIterator(Iterator<FxDealRequest> source, ImportSummaryResponse lenientSummary) {
+            this.source = source;
+            this.lenientSummary = lenientSummary;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending == null && source.hasNext()) {
+                FxDealRequest deal = source.next();
+
+                long start = System.nanoTime();
+                List<String> violations = deal == null ? NULL_DEAL : validator.validate(deal);
+                validateNanos += System.nanoTime() - start;
+
+                if (violations.isEmpty()) {
+                    pending = deal;
+                } else {
+                    reject(deal, violations);
+                }
+                index++;
+            }
+            return pending != null;
+        }
+
+        @Override
+        public FxDealRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            FxDealRequest deal = pending;
+            pending = null;
+            return deal;
+        }
+
+        private void reject(FxDealRequest deal, List<String> violations) {
+            metrics.recordInvalid();
+            if (lenientSummary == null) {
+                log.warn("Invalid deal at index {} in import stream", index);
+                throw new InvalidDealException(index, violations);
+            }
+            rejected++;
+            lenientSummary.recordInvalid(index, deal != null ? deal.getDealUniqueId() : null, violations);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.IdempotencyProperties;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse.ErrorDetail;
+import com.example.datawarehouse.exception.IdempotencyKeyReusedException;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Import summaries by client-supplied Idempotency-Key. The first request with a key
+ * runs the import; a retry with the same key gets the stored summary without
+ * touching the database, and a retry that arrives while the import is still running
+ * is told to retry later at once, so it holds neither an import worker nor a slot.
+ * Failed imports are not stored, so they can be retried.
+ * <p>
+ * Keys of running imports are held apart from the cache, so they are never evicted
+ * while their import runs. Completed summaries expire after {@code ttl} and are
+ * evicted by weight beyond {@code capacity}. A stored summary is an in-memory copy
+ * holding at most {@code max-stored-errors} errors, the others being counted in
+ * {@code omittedErrors}, so it never keeps the temporary file of a large import's
+ * spilled errors open. Keys are only remembered by this instance.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final Cache<String, Stored> completed;
+    private final ConcurrentMap<String, byte[]> inFlight = new ConcurrentHashMap<>();
+    private final int maxStoredErrors;
+    private final Counter executed;
+    private final Counter replayed;
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.completed = Caffeine.newBuilder()
+                .maximumWeight(properties.getCapacity())
+                .weigher((String key, Stored stored) -> 1 + stored.summary().getErrors().size())
+                .expireAfterWrite(properties.getTtl())
+                .removalListener((String key, Stored stored, RemovalCause cause) -> {
+                    // The stored copy holds no file today; closing it keeps eviction safe if that changes
+                    if (stored != null && cause.wasEvicted()) {
+                        stored.summary().close();
+                    }
+                })
+                .build();
+        this.maxStoredErrors = Math.max(0, properties.getMaxStoredErrors());
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fxdeals.idempotency.requests")
+                .description("Imports submitted with an Idempotency-Key, by whether they ran or were replayed")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+
+    /**
+     * Checks a request before it is admitted: returns the stored summary of a
+     * completed import under {@code key}, or nothing when the import has to run.
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws ImportRejectedException if an import is running under the key
+     */
+    public Optional<ImportSummaryResponse> lookup(String key, byte[] fingerprint) {
+        Stored stored = completed.getIfPresent(key);
+        if (stored != null) {
+            return Optional.of(replay(key, stored, fingerprint));
+        }
+        byte[] running = inFlight.get(key);
+        if (running != null) {
+            throw inProgress(key, running, fingerprint);
+        }
+        return Optional.empty();
+    }
+
+
+    /**
+     * Runs {@code importer} unless an import was already run under {@code key}, in
+     * which case its summary is returned instead.
+     *
+     * @param fingerprint digest of the request body; a key reused with another body is rejected
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws ImportRejectedException if an import is running under the key
+     */
+    public ImportSummaryResponse execute(String key, byte[] fingerprint, Supplier<ImportSummaryResponse> importer) {
+        byte[] running = inFlight.putIfAbsent(key, fingerprint);
+        if (running != null) {
+            throw inProgress(key, running, fingerprint);
+        }
+        try {
+            // The import may have completed since the lookup
+            Stored stored = completed.getIfPresent(key);
+            if (stored != null) {
+                return replay(key, stored, fingerprint);
+            }
+            executed.increment();
+            ImportSummaryResponse summary = importer.get();
+            completed.put(key, new Stored(fingerprint, retained(summary)));
+            return summary;
+        } finally {
+            inFlight.remove(key, fingerprint);
+        }
+    }
+
+
+    // Reads only the first errors, which a summary keeps in memory
+    private ImportSummaryResponse retained(ImportSummaryResponse summary) {
+        List<ErrorDetail> errors = new ArrayList<>(Math.min(summary.getErrors().size(), maxStoredErrors));
+        Iterator<ErrorDetail> it = summary.getErrors().iterator();
+        while (errors.size() < maxStoredErrors && it.hasNext()) {
+            errors.add(it.next());
+        }
+        int omitted = summary.getErrors().size() - errors.size();
+        return ImportSummaryResponse.builder()
+                .imported(summary.getImported())
+                .skipped(summary.getSkipped())
+                .errors(errors)
+                .omittedErrors(omitted > 0 ? omitted : null)
+                .build();
+    }
+
+
+    private ImportSummaryResponse replay(String key, Stored stored, byte[] fingerprint) {
+        checkFingerprint(key, stored.fingerprint(), fingerprint);
+        replayed.increment();
+        return stored.summary();
+    }
+
+    private static ImportRejectedException inProgress(String key, byte[] running, byte[] fingerprint) {
+        checkFingerprint(key, running, fingerprint);
+        log.info("Import with Idempotency-Key {} is in progress, asking the duplicate to retry", key);
+        return new ImportRejectedException("Import with this Idempotency-Key is still in progress, retry later",
+                RETRY_AFTER);
+    }
+
+    private static void checkFingerprint(String key, byte[] expected, byte[] fingerprint) {
+        if (!MessageDigest.isEqual(expected, fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+    }
+
+
+    private record Stored(byte[] fingerprint, ImportSummaryResponse summary) {
+    }
+}
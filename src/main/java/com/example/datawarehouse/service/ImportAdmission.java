@@ -0,0 +1,174 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.AdmissionProperties;
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.example.datawarehouse.util.AimdLimiter;
+import com.example.datawarehouse.util.BatchSizeTuner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether a synchronous import may start, and how many deals the batched
+ * import path writes per chunk. Imports are admitted in two lanes, so a few bulk
+ * imports cannot take the slots of small ones. Each lane has a concurrency limit
+ * that follows the time chunks take to commit: a chunk slower per deal than
+ * {@code latency-tolerance} times the fastest one of similar size seen means the
+ * database is queueing, and the limits are cut; otherwise they slowly grow. Small
+ * chunks cost more per deal whatever the load, so each power of two of chunk size
+ * has its own baseline, and chunks below {@code min-batch-size} are ignored. An
+ * import finding its lane full is rejected with 429 right away instead of waiting
+ * in a queue.
+ */
+@Component
+@Slf4j
+public class ImportAdmission {
+
+    public enum Lane {
+        SMALL, BULK;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Lets the fastest chunk seen age out, in case it was not representative
+    private static final double BASELINE_DRIFT = 1.001;
+
+    private final AdmissionProperties properties;
+    private final ImportProperties importProperties;
+    private final Map<Lane, AimdLimiter> limiters = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> rejections = new EnumMap<>(Lane.class);
+    private final BatchSizeTuner batchSizeTuner;
+    // Fastest time per deal seen, by highest one bit of the chunk size
+    private final Map<Integer, Double> baselineNanosPerDeal = new HashMap<>();
+
+    public ImportAdmission(AdmissionProperties properties, ImportProperties importProperties,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.importProperties = importProperties;
+        this.batchSizeTuner = new BatchSizeTuner(importProperties.getBatchSize(), properties.getMinBatchSize(),
+                properties.getMaxBatchSize(), properties.getTuningWindow());
+
+        limiters.put(Lane.SMALL, createLimiter(properties.getSmall()));
+        limiters.put(Lane.BULK, createLimiter(properties.getBulk()));
+        for (Lane lane : Lane.values()) {
+            AimdLimiter limiter = limiters.get(lane);
+            Gauge.builder("fxdeals.admission.limit", limiter, AimdLimiter::limit)
+                    .description("Concurrent imports currently allowed in the lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("fxdeals.admission.in-flight", limiter, AimdLimiter::inFlight)
+                    .description("Imports running in the lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            rejections.put(lane, Counter.builder("fxdeals.admission.rejected")
+                    .description("Imports rejected because their lane was full")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("fxdeals.admission.batch.size", this, ImportAdmission::batchSize)
+                .description("Number of deals per chunk currently used by the batched import path")
+                .baseUnit("deals")
+                .register(meterRegistry);
+    }
+
+    private static AimdLimiter createLimiter(AdmissionProperties.Lane lane) {
+        return new AimdLimiter(lane.getInitialLimit(), lane.getMinLimit(), lane.getMaxLimit());
+    }
+
+
+    public Lane laneFor(int dealCount) {
+        return dealCount >= properties.getBulkThreshold() ? Lane.BULK : Lane.SMALL;
+    }
+
+    /**
+     * Admits an import of {@code dealCount} deals in the lane its size calls for.
+     */
+    public Permit admit(int dealCount) {
+        return admit(laneFor(dealCount));
+    }
+
+    /**
+     * Takes a slot in {@code lane}, to be given back by closing the permit.
+     *
+     * @throws ImportRejectedException if the lane is full
+     */
+    public Permit admit(Lane lane) {
+        if (!properties.isEnabled()) {
+            return Permit.UNLIMITED;
+        }
+        AimdLimiter limiter = limiters.get(lane);
+        if (!limiter.tryAcquire()) {
+            rejections.get(lane).increment();
+            log.warn("Import rejected, {} lane full at {} concurrent imports", lane.tag(), limiter.limit());
+            throw new ImportRejectedException("Too many " + lane.tag() + " imports in progress, retry later",
+                    properties.getRetryAfter());
+        }
+        return new Permit(limiter::release);
+    }
+
+
+    /**
+     * Number of deals the batched import path should write in its next chunk.
+     */
+    public int batchSize() {
+        return properties.isAdaptiveBatchSize()
+                ? batchSizeTuner.size()
+                : Math.max(1, importProperties.getBatchSize());
+    }
+
+    /**
+     * Feeds the time a chunk of {@code deals} took to be written and committed to
+     * the lane limits and the chunk size tuning. Only chunks written at
+     * {@link #batchSize()} should be recorded.
+     */
+    public void recordChunk(int deals, long nanos) {
+        if (deals < Math.max(1, properties.getMinBatchSize())) {
+            return;
+        }
+        double nanosPerDeal = (double) nanos / deals;
+        boolean congested;
+        synchronized (this) {
+            Double baseline = baselineNanosPerDeal.get(Integer.highestOneBit(deals));
+            congested = baseline != null && nanosPerDeal > baseline * properties.getLatencyTolerance();
+            baselineNanosPerDeal.put(Integer.highestOneBit(deals),
+                    baseline == null ? nanosPerDeal : Math.min(nanosPerDeal, baseline * BASELINE_DRIFT));
+        }
+        limiters.values().forEach(limiter -> limiter.onSample(congested));
+        if (properties.isAdaptiveBatchSize()) {
+            batchSizeTuner.record(deals, nanos);
+        }
+    }
+
+
+    /**
+     * A slot in a lane. Closing it more than once gives the slot back only once.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        public static final Permit UNLIMITED = new Permit(() -> { });
+
+        private final Runnable release;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportJobProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportJobResponse;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs imports in the background on a bounded worker pool. Submission returns a job
+ * ID straight away; progress and the final summary are read back by polling. When
+ * every worker is busy and the queue is full, submissions are rejected instead of
+ * piling up.
+ * <p>
+ * A job takes a slot in the bulk admission lane when it is submitted and holds it
+ * until it ends, so background jobs count against the same limit as bulk requests.
+ */
+@Service
+@Slf4j
+public class ImportJobService implements DisposableBean {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final FxDealService service;
+    private final ImportAdmission admission;
+    private final ImportJobProperties properties;
+    private final TaskExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportJobService(FxDealService service, ImportAdmission admission, ImportJobProperties properties) {
+        this(service, admission, properties, createExecutor(properties));
+    }
+
+    ImportJobService(FxDealService service, ImportAdmission admission, ImportJobProperties properties,
+                     TaskExecutor executor) {
+        this.service = service;
+        this.admission = admission;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(ImportJobProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkers());
+        executor.setMaxPoolSize(properties.getWorkers());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("import-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+
+    public ImportJobResponse submit(List<FxDealRequest> requests) {
+        evictExpiredJobs();
+
+        ImportAdmission.Permit permit = admission.admit(ImportAdmission.Lane.BULK);
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), Instant.now());
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> {
+                try (permit) {
+                    run(job, requests);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            permit.close();
+            jobs.remove(job.id);
+            log.warn("Import job rejected, queue full ({} deals)", requests.size());
+            throw new ImportRejectedException("Too many import jobs in progress, retry later", RETRY_AFTER);
+        }
+
+        log.info("Import job {} queued with {} deals", job.id, requests.size());
+        return job.toResponse();
+    }
+
+
+    public Optional<ImportJobResponse> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::toResponse);
+    }
+
+
+    private void run(ImportJob job, List<FxDealRequest> requests) {
+        job.status = ImportJobResponse.Status.RUNNING;
+        try {
+            ImportSummaryResponse summary = service.importDeals(requests, (imported, skipped) -> {
+                job.imported = imported;
+                job.skipped = skipped;
+            });
+            job.summary = summary;
+            job.imported = summary.getImported();
+            job.skipped = summary.getSkipped();
+            job.completedAt = Instant.now();
+            job.status = ImportJobResponse.Status.COMPLETED;
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", job.id, e.getMessage());
+            job.error = e.getMessage();
+            job.completedAt = Instant.now();
+            job.status = ImportJobResponse.Status.FAILED;
+        }
+        log.info("Import job {} finished: {}", job.id, job.status);
+    }
+
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+
+        int excess = jobs.size() - properties.getMaxRetained();
+        if (excess > 0) {
+            jobs.values().stream()
+                    .filter(job -> job.completedAt != null)
+                    .sorted(Comparator.comparing((ImportJob job) -> job.completedAt))
+                    .limit(excess)
+                    .toList()
+                    .forEach(job -> jobs.remove(job.id));
+        }
+    }
+
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+
+    private static final class ImportJob {
+
+        private final String id;
+        private final Instant submittedAt;
+        private volatile ImportJobResponse.Status status = ImportJobResponse.Status.QUEUED;
+        private volatile int imported;
+        private volatile int skipped;
+        private volatile ImportSummaryResponse summary;
+        private volatile String error;
+        private volatile Instant completedAt;
+
+        private ImportJob(String id, Instant submittedAt) {
+            this.id = id;
+            this.submittedAt = submittedAt;
+        }
+
+        private ImportJobResponse toResponse() {
+            return ImportJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .imported(imported)
+                    .skipped(skipped)
+                    .submittedAt(submittedAt)
+                    .completedAt(completedAt)
+                    .summary(summary)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.datawarehouse.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the import pipeline. Stages are timed once per chunk (or once per
+ * request for parsing and validation, which happen deal by deal), so the cost of
+ * measuring stays far below the work measured. Deal outcomes are counted per chunk.
+ */
+@Component
+public class ImportMetrics {
+
+    public enum Stage {
+        PARSE, VALIDATE, DEDUP, INSERT, ROLLUP, COMMIT, COPY, MERGE;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Counter imported;
+    private final Counter duplicates;
+    private final Counter failed;
+    private final Counter invalid;
+    private final DistributionSummary chunkSizes;
+
+    public ImportMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("fxdeals.import.stage")
+                    .description("Time spent in each stage of the import pipeline")
+                    .tag("stage", stage.tag())
+                    .register(meterRegistry));
+        }
+
+        this.imported = dealCounter(meterRegistry, "imported", "none");
+        this.duplicates = dealCounter(meterRegistry, "skipped", "duplicate");
+        this.failed = dealCounter(meterRegistry, "failed", "error");
+        this.invalid = dealCounter(meterRegistry, "failed", "invalid");
+        this.chunkSizes = DistributionSummary.builder("fxdeals.import.chunk.size")
+                .description("Number of deals per written chunk")
+                .baseUnit("deals")
+                .register(meterRegistry);
+    }
+
+    private static Counter dealCounter(MeterRegistry meterRegistry, String outcome, String reason) {
+        return Counter.builder("fxdeals.import.deals")
+                .description("Imported deals by outcome and reason")
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+
+    public <T> T time(Stage stage, Supplier<T> work) {
+        return stageTimers.get(stage).record(work);
+    }
+
+    public void time(Stage stage, Runnable work) {
+        stageTimers.get(stage).record(work);
+    }
+
+    public void record(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * Times the commit of the current transaction, if one is active.
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                record(Stage.COMMIT, System.nanoTime() - start);
+            }
+        });
+    }
+
+
+    /**
+     * Counts the outcome of every deal of a chunk, given as returned by the chunk
+     * import: null for imported, {@link FxDealService#DUPLICATE_REASON} or an error.
+     */
+    public void recordOutcomes(List<String> reasons) {
+        int importedCount = 0;
+        int duplicateCount = 0;
+        for (String reason : reasons) {
+            if (reason == null) {
+                importedCount++;
+            } else if (FxDealService.DUPLICATE_REASON.equals(reason)) {
+                duplicateCount++;
+            }
+        }
+        imported.increment(importedCount);
+        duplicates.increment(duplicateCount);
+        failed.increment(reasons.size() - importedCount - duplicateCount);
+        chunkSizes.record(reasons.size());
+    }
+
+    public void recordInvalid() {
+        invalid.increment();
+    }
+}
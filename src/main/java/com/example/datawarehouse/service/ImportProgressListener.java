@@ -0,0 +1,12 @@
+package com.example.datawarehouse.service;
+
+/**
+ * Notified by {@link FxDealService} after each chunk of an import is written.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = (imported, skipped) -> { };
+
+    void onProgress(int imported, int skipped);
+}
@@ -0,0 +1,97 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportRequestProperties;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Runs synchronous import requests on a bounded worker pool instead of the servlet
+ * thread that received them. The request thread is released as soon as the import
+ * is queued, so reads keep being served while imports wait on the database, and a
+ * burst of imports beyond the queue is rejected with 429 instead of taking every
+ * request thread.
+ * <p>
+ * No thread waits for an import on behalf of its request. When the client times out,
+ * the request fails and the import keeps running to its end instead of being
+ * interrupted halfway, which would fail every chunk left once the database pool
+ * refuses the interrupted thread.
+ */
+@Component
+@Slf4j
+public class ImportRequestExecutor implements DisposableBean {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final AsyncTaskExecutor executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ImportRequestExecutor(ImportRequestProperties properties, MeterRegistry meterRegistry) {
+        this(createExecutor(properties, meterRegistry), properties.getTimeout());
+    }
+
+    ImportRequestExecutor(AsyncTaskExecutor executor, Duration timeout) {
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    private static AsyncTaskExecutor createExecutor(ImportRequestProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getWorkers() == 0) {
+            return new TaskExecutorAdapter(Runnable::run);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkers());
+        executor.setMaxPoolSize(properties.getWorkers());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("import-request-");
+        // Thrown through the executor as is, so the controller reports it as 429
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            log.warn("Import request rejected, {} queued", pool.getQueue().size());
+            throw new ImportRejectedException("Too many imports in progress, retry later", RETRY_AFTER);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "import-requests", List.of())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+
+    /**
+     * Queues {@code importer} on the import pool. Spring MVC answers the request with
+     * its result, or with an error if it is not there within the timeout.
+     *
+     * @throws ImportRejectedException if the workers and the queue are busy
+     */
+    public <T> DeferredResult<T> submit(Callable<T> importer) {
+        DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+        executor.execute(() -> {
+            try {
+                result.setResult(importer.call());
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        });
+        return result;
+    }
+
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.IngestLogProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.IngestAckResponse;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.util.IngestLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-ahead ingest: validated deals are appended to the local {@link IngestLog}
+ * and acknowledged once on disk, without waiting for the database. A background
+ * drainer writes them to {@code fx_deals} in large batches and moves the log's
+ * checkpoint forward only after a batch has committed.
+ * <p>
+ * Deals are applied at least once. A batch that fails is retried whole, and deals
+ * it had already stored are then skipped as duplicates; the same happens to the
+ * deals replayed after a crash. A batch the database keeps rejecting stops the
+ * drain, which shows up in the lag metric.
+ * <p>
+ * Each batch takes a slot in the bulk admission lane while it is written. When the
+ * lane is full the drainer waits {@code retry-delay} and tries again, so the log
+ * catches up once bulk imports leave room.
+ */
+@Service
+@Slf4j
+public class IngestService implements InitializingBean, DisposableBean {
+
+    private final IngestLogProperties properties;
+    private final FxDealService service;
+    private final ImportAdmission admission;
+    private final FxDealMapper mapper;
+    private final Clock clock;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter drained;
+    private volatile long oldestPendingMillis;
+
+    private IngestLog ingestLog;
+    private volatile Thread drainer;
+    private volatile boolean running;
+
+    public IngestService(IngestLogProperties properties, FxDealService service, ImportAdmission admission,
+                         FxDealMapper mapper, MeterRegistry meterRegistry) {
+        this(properties, service, admission, mapper, meterRegistry, Clock.systemUTC());
+    }
+
+    IngestService(IngestLogProperties properties, FxDealService service, ImportAdmission admission,
+                  FxDealMapper mapper, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.service = service;
+        this.admission = admission;
+        this.mapper = mapper;
+        this.clock = clock;
+
+        this.drained = Counter.builder("fxdeals.ingest.drained")
+                .description("Deals written from the ingest log to the database")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.ingest.pending", pending, AtomicLong::get)
+                .description("Deals acknowledged from the ingest log but not yet in the database")
+                .register(meterRegistry);
+        TimeGauge.builder("fxdeals.ingest.lag", this, TimeUnit.MILLISECONDS, IngestService::lagMillis)
+                .description("Age of the oldest deal waiting in the ingest log")
+                .register(meterRegistry);
+    }
+
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ingestLog = IngestLog.open(properties.getDirectory(), (int) properties.getSegmentSize().toBytes());
+        pending.set(ingestLog.recoveredRecords());
+        log.info("Ingest log opened in {}, {} deals to replay", properties.getDirectory(), pending.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDrainer() {
+        if (ingestLog == null) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "ingest-drainer");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+
+    /**
+     * Appends the deals to the ingest log and returns once they are on disk.
+     */
+    public IngestAckResponse ingest(List<FxDealRequest> requests) {
+        if (ingestLog == null) {
+            throw new InvalidRequestParameterException("Ingest mode is disabled (fxdeals.ingest-log.enabled)");
+        }
+        List<FxDeal> deals = requests.stream().map(mapper::toEntity).toList();
+
+        // Counted first so the drainer never sees more deals than are pending
+        long total = pending.addAndGet(deals.size());
+        long position;
+        try {
+            position = ingestLog.append(deals, clock.millis());
+        } catch (RuntimeException e) {
+            pending.addAndGet(-deals.size());
+            throw e;
+        }
+        ingestLog.awaitDurable(position);
+        LockSupport.unpark(drainer);
+
+        log.debug("Ingested {} deals up to log position {}", deals.size(), position);
+        return IngestAckResponse.builder()
+                .accepted(deals.size())
+                .pending(total)
+                .build();
+    }
+
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                if (!drainOnce()) {
+                    LockSupport.parkNanos(properties.getPollInterval().toNanos());
+                }
+            } catch (ImportRejectedException e) {
+                log.debug("Ingest log drain waiting for a bulk import slot");
+                LockSupport.parkNanos(properties.getRetryDelay().toNanos());
+            } catch (RuntimeException e) {
+                log.warn("Ingest log drain failed ({}), retrying in {}", e.getMessage(), properties.getRetryDelay());
+                LockSupport.parkNanos(properties.getRetryDelay().toNanos());
+            }
+        }
+    }
+
+    /**
+     * Writes the next batch of logged deals to the database and commits the log
+     * past it.
+     *
+     * @return false if the log had nothing to drain
+     * @throws ImportRejectedException if the bulk lane is full; nothing is written
+     */
+    boolean drainOnce() {
+        List<IngestLog.Entry> batch = ingestLog.read(ingestLog.committedPosition(), properties.getDrainBatchSize());
+        if (batch.isEmpty()) {
+            oldestPendingMillis = 0;
+            return false;
+        }
+        oldestPendingMillis = batch.get(0).appendedAtMillis();
+
+        List<FxDeal> deals = batch.stream().map(IngestLog.Entry::deal).toList();
+        long failed;
+        try (ImportAdmission.Permit permit = admission.admit(ImportAdmission.Lane.BULK)) {
+            failed = service.importEntityChunk(deals).stream()
+                    .filter(reason -> reason != null && !FxDealService.DUPLICATE_REASON.equals(reason))
+                    .count();
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + deals.size() + " deals could not be written");
+        }
+
+        try {
+            ingestLog.commit(batch.get(batch.size() - 1).nextPosition());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save the ingest log checkpoint", e);
+        }
+        pending.addAndGet(-batch.size());
+        drained.increment(batch.size());
+        return true;
+    }
+
+    private double lagMillis() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : Math.max(0, clock.millis() - oldest);
+    }
+
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(properties.getRetryDelay().toMillis() * 2);
+        }
+        if (ingestLog != null) {
+            ingestLog.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports a single large request across several connections at once. Deals are
+ * partitioned by a hash of their ID, so every occurrence of an ID lands in the same
+ * partition and duplicates inside the request are resolved exactly as in the
+ * sequential import. Partitions are written concurrently in chunks and their
+ * outcomes merged back into one summary in input order.
+ */
+@Service
+@Slf4j
+public class ParallelImportService implements DisposableBean {
+
+    private final FxDealService service;
+    private final ImportProperties properties;
+    private final ExecutorService executor;
+
+    public ParallelImportService(FxDealService service, ImportProperties properties) {
+        this.service = service;
+        this.properties = properties;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()),
+                new CustomizableThreadFactory("import-partition-"));
+    }
+
+
+    public ImportSummaryResponse importDeals(List<FxDealRequest> requests) {
+        int partitionCount = Math.max(1, properties.getParallelism());
+        log.info("Starting parallel import of {} deals across {} partitions", requests.size(), partitionCount);
+
+        List<List<Integer>> partitions = new ArrayList<>(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            partitions.add(new ArrayList<>(requests.size() / partitionCount + 1));
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            partitions.get(Math.floorMod(requests.get(i).getDealUniqueId().hashCode(), partitionCount)).add(i);
+        }
+
+        String[] reasons = new String[requests.size()];
+        List<Future<?>> futures = new ArrayList<>(partitionCount);
+        for (List<Integer> positions : partitions) {
+            if (!positions.isEmpty()) {
+                futures.add(executor.submit(() -> importPartition(requests, positions, reasons)));
+            }
+        }
+        awaitAll(futures);
+
+        ImportSummaryResponse summary = ImportSummaryResponse.builder()
+                .imported(0)
+                .skipped(0)
+                .build();
+        for (int i = 0; i < requests.size(); i++) {
+            summary.record(requests.get(i).getDealUniqueId(), reasons[i]);
+        }
+
+        log.info("Parallel import completed: {} imported, {} skipped", summary.getImported(), summary.getSkipped());
+        return summary;
+    }
+
+
+    private void importPartition(List<FxDealRequest> requests, List<Integer> positions, String[] reasons) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < positions.size(); from += batchSize) {
+            List<Integer> chunkPositions = positions.subList(from, Math.min(from + batchSize, positions.size()));
+            List<String> chunkReasons = service.importChunk(chunkPositions.stream().map(requests::get).toList());
+            for (int j = 0; j < chunkPositions.size(); j++) {
+                reasons[chunkPositions.get(j)] = chunkReasons.get(j);
+            }
+        }
+    }
+
+
+    private static void awaitAll(List<Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Parallel import interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Parallel import failed", e.getCause());
+        }
+    }
+
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
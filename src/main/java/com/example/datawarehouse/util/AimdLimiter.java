@@ -0,0 +1,62 @@
+package com.example.datawarehouse.util;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease. Each
+ * latency sample reported as fine raises the limit by 1/limit, about one per round
+ * of work, as long as the limit is actually being used; a congested sample cuts it
+ * by a quarter, at most once per round so that samples of work started before the
+ * cut do not cut it again.
+ */
+public final class AimdLimiter {
+
+    private static final double BACKOFF = 0.75;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private int samplesSinceDecrease;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    /**
+     * @return true if a slot was taken, to be given back with {@link #release()}
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release() {
+        if (inFlight > 0) {
+            inFlight--;
+        }
+    }
+
+    public synchronized void onSample(boolean congested) {
+        samplesSinceDecrease++;
+        if (congested) {
+            if (samplesSinceDecrease >= (int) limit) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                samplesSinceDecrease = 0;
+            }
+        } else if (inFlight * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
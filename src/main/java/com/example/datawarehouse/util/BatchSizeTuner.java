@@ -0,0 +1,59 @@
+package com.example.datawarehouse.util;
+
+/**
+ * Picks a chunk size by hill climbing on measured throughput. Deals and time are
+ * summed over a window of chunks; after each window the size takes a step in the
+ * current direction, and the direction flips when throughput fell compared to the
+ * previous window or a bound is reached. The size keeps probing around the best
+ * value, so it follows changes in load and data.
+ */
+public final class BatchSizeTuner {
+
+    private final int minSize;
+    private final int maxSize;
+    private final int window;
+
+    private int size;
+    private boolean growing = true;
+    private double lastThroughput;
+    private int windowChunks;
+    private long windowDeals;
+    private long windowNanos;
+
+    public BatchSizeTuner(int initialSize, int minSize, int maxSize, int window) {
+        this.minSize = Math.max(1, minSize);
+        this.maxSize = Math.max(this.minSize, maxSize);
+        this.window = Math.max(1, window);
+        this.size = Math.min(Math.max(initialSize, this.minSize), this.maxSize);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Records that a chunk of {@code deals} was written in {@code nanos}.
+     */
+    public synchronized void record(int deals, long nanos) {
+        windowDeals += deals;
+        windowNanos += nanos;
+        if (++windowChunks < window) {
+            return;
+        }
+
+        double throughput = windowDeals / (double) Math.max(1, windowNanos);
+        if (throughput < lastThroughput) {
+            growing = !growing;
+        }
+        lastThroughput = throughput;
+        windowChunks = 0;
+        windowDeals = 0;
+        windowNanos = 0;
+
+        int step = Math.max(1, size / 4);
+        size = Math.min(Math.max(growing ? size + step : size - step, minSize), maxSize);
+        if (size == minSize || size == maxSize) {
+            growing = size == minSize;
+        }
+    }
+}
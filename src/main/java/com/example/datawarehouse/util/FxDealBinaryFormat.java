@@ -0,0 +1,273 @@
+package com.example.datawarehouse.util;
+
+import com.example.datawarehouse.exception.InvalidDealException;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of FX deals, accepted by the import endpoint as
+ * {@value #MEDIA_TYPE}. All numbers are big-endian:
+ * <pre>
+ * payload := "FXDB" version:u8 batch* 0:i32
+ * batch   := count:i32 dictionarySize:u8 currency[dictionarySize] record[count]
+ * currency:= 3 ASCII bytes
+ * record  := idLength:u16 id:UTF-8 from:u8 to:u8 timestamp:i64 amount:i64
+ * </pre>
+ * Currencies are indexes into the batch dictionary, {@code timestamp} is the deal
+ * time in microseconds since the epoch read as UTC, and {@code amount} is the deal
+ * amount scaled by 10<sup>4</sup>. A long always fits the amount's 15 integer digits.
+ */
+public final class FxDealBinaryFormat {
+
+    public static final String MEDIA_TYPE = "application/x-fxdeals";
+
+    static final byte[] MAGIC = {'F', 'X', 'D', 'B'};
+    static final int VERSION = 1;
+    static final int AMOUNT_SCALE = 4;
+    static final int MAX_DICTIONARY_SIZE = 255;
+
+    private static final int MAX_ID_LENGTH = 100;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private FxDealBinaryFormat() {
+    }
+
+
+    /**
+     * Decodes a payload straight into unsaved {@link FxDeal} entities, applying the
+     * same rules and messages as bean validation of {@code FxDealRequest}. Currency
+     * codes are checked once per dictionary entry and shared by the decoded deals.
+     * Any invalid or malformed deal raises {@link InvalidDealException} with its index.
+     */
+    public static final class Reader {
+
+        private final DataInputStream in;
+        private String[] dictionary = new String[0];
+        private boolean[] validCurrency = new boolean[0];
+        private int remainingInBatch;
+        private boolean finished;
+        private int index;
+
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+            byte[] magic = new byte[MAGIC.length];
+            try {
+                this.in.readFully(magic);
+                int version = this.in.readUnsignedByte();
+                if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                    throw malformed("unsupported header");
+                }
+            } catch (EOFException e) {
+                throw malformed("missing header");
+            }
+        }
+
+        /**
+         * @return the next deal, or null once the end marker has been read
+         */
+        public FxDeal next() throws IOException {
+            if (finished) {
+                return null;
+            }
+            try {
+                if (remainingInBatch == 0 && !readBatchHeader()) {
+                    finished = true;
+                    return null;
+                }
+                FxDeal deal = readRecord();
+                remainingInBatch--;
+                index++;
+                return deal;
+            } catch (EOFException e) {
+                throw malformed("unexpected end of payload");
+            }
+        }
+
+        private boolean readBatchHeader() throws IOException {
+            int count = in.readInt();
+            if (count == 0) {
+                return false;
+            }
+            if (count < 0) {
+                throw malformed("negative batch size");
+            }
+
+            int size = in.readUnsignedByte();
+            dictionary = new String[size];
+            validCurrency = new boolean[size];
+            byte[] code = new byte[3];
+            for (int i = 0; i < size; i++) {
+                in.readFully(code);
+                dictionary[i] = new String(code, StandardCharsets.US_ASCII);
+                validCurrency[i] = isUpperCaseLetter(code[0]) && isUpperCaseLetter(code[1])
+                        && isUpperCaseLetter(code[2]);
+            }
+            remainingInBatch = count;
+            return true;
+        }
+
+        private FxDeal readRecord() throws IOException {
+            byte[] idBytes = new byte[in.readUnsignedShort()];
+            in.readFully(idBytes);
+            String dealUniqueId = new String(idBytes, StandardCharsets.UTF_8);
+            int from = in.readUnsignedByte();
+            int to = in.readUnsignedByte();
+            long micros = in.readLong();
+            long scaledAmount = in.readLong();
+
+            List<String> violations = new ArrayList<>(0);
+            LocalDateTime dealTimestamp = null;
+            try {
+                dealTimestamp = fromEpochMicros(micros);
+            } catch (DateTimeException e) {
+                violations.add("dealTimestamp: Deal Timestamp is out of range");
+            }
+            if (dealUniqueId.isBlank()) {
+                violations.add(FxDealRequestValidator.ID_REQUIRED);
+            } else if (dealUniqueId.length() > MAX_ID_LENGTH) {
+                violations.add(FxDealRequestValidator.ID_TOO_LONG);
+            }
+            if (scaledAmount < 1) {
+                violations.add(FxDealRequestValidator.AMOUNT_NOT_POSITIVE);
+            }
+            if (from >= dictionary.length || !validCurrency[from]) {
+                violations.add(FxDealRequestValidator.FROM_INVALID);
+            }
+            if (to >= dictionary.length || !validCurrency[to]) {
+                violations.add(FxDealRequestValidator.TO_INVALID);
+            }
+            if (!violations.isEmpty()) {
+                violations.sort(null);
+                throw new InvalidDealException(index, violations);
+            }
+
+            return FxDeal.builder()
+                    .dealUniqueId(dealUniqueId)
+                    .fromCurrencyIsoCode(dictionary[from])
+                    .toCurrencyIsoCode(dictionary[to])
+                    .dealTimestamp(dealTimestamp)
+                    .dealAmount(BigDecimal.valueOf(scaledAmount, AMOUNT_SCALE))
+                    .build();
+        }
+
+        private InvalidDealException malformed(String problem) {
+            return new InvalidDealException(index, List.of("Malformed binary payload: " + problem));
+        }
+
+        private static boolean isUpperCaseLetter(byte b) {
+            return b >= 'A' && b <= 'Z';
+        }
+    }
+
+
+    /**
+     * Encodes deals in batches of up to {@code batchSize} records. A batch is also
+     * cut early when its currency dictionary is full. {@link #close()} writes the
+     * pending batch and the end marker, and closes the underlying stream.
+     */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private final int batchSize;
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        private final DataOutputStream recordsOut = new DataOutputStream(records);
+        private int count;
+
+        public Writer(OutputStream out) throws IOException {
+            this(out, DEFAULT_BATCH_SIZE);
+        }
+
+        public Writer(OutputStream out, int batchSize) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+            this.batchSize = Math.max(1, batchSize);
+            this.out.write(MAGIC);
+            this.out.writeByte(VERSION);
+        }
+
+        /**
+         * @throws ArithmeticException if {@code amount} has more than 4 decimal places
+         *                             or does not fit the format
+         */
+        public void write(String dealUniqueId, String fromCurrency, String toCurrency,
+                          LocalDateTime timestamp, BigDecimal amount) throws IOException {
+            if (count == batchSize || (dictionary.size() >= MAX_DICTIONARY_SIZE - 1
+                    && !(dictionary.containsKey(fromCurrency) && dictionary.containsKey(toCurrency)))) {
+                flushBatch();
+            }
+
+            byte[] id = dealUniqueId.getBytes(StandardCharsets.UTF_8);
+            if (id.length > 0xFFFF) {
+                throw new IllegalArgumentException("Deal Unique ID is too long to encode");
+            }
+            recordsOut.writeShort(id.length);
+            recordsOut.write(id);
+            recordsOut.writeByte(dictionaryIndex(fromCurrency));
+            recordsOut.writeByte(dictionaryIndex(toCurrency));
+            recordsOut.writeLong(toEpochMicros(timestamp));
+            recordsOut.writeLong(amount.setScale(AMOUNT_SCALE).unscaledValue().longValueExact());
+            count++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushBatch();
+            out.writeInt(0);
+            out.close();
+        }
+
+        private int dictionaryIndex(String currency) {
+            if (currency.length() != 3) {
+                throw new IllegalArgumentException("Currency code must have 3 characters: " + currency);
+            }
+            return dictionary.computeIfAbsent(currency, code -> dictionary.size());
+        }
+
+        private void flushBatch() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            out.writeInt(count);
+            out.writeByte(dictionary.size());
+            for (String currency : dictionary.keySet()) {
+                out.write(currency.getBytes(StandardCharsets.US_ASCII));
+            }
+            records.writeTo(out);
+
+            dictionary.clear();
+            records.reset();
+            count = 0;
+        }
+    }
+
+
+    static long toEpochMicros(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                timestamp.getNano() / 1_000);
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
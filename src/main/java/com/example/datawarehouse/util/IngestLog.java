@@ -0,0 +1,372 @@
+package com.example.datawarehouse.util;
+
+import com.example.datawarehouse.model.FxDeal;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of deals in fixed-size memory-mapped segment files, used to
+ * acknowledge imports before they reach the database.
+ * <p>
+ * Positions are byte offsets over the whole log; a segment file is named after
+ * the position of its first byte. Each record is laid out as
+ * <pre>
+ *   int   payload length (0 marks the end of the segment's records)
+ *   int   CRC32C of the append time and payload
+ *   long  append time, epoch milliseconds
+ *   ...   payload: deal ID (short length + UTF-8), from and to currency (3 ASCII
+ *         bytes each), timestamp (long epoch second UTC + int nanos), amount
+ *         (int scale + short length + unscaled two's-complement bytes)
+ * </pre>
+ * Appends are made durable by {@link #awaitDurable(long)}, which forces the
+ * mapped pages to disk once for every append waiting at that time. The consumer
+ * reads durable records from the committed position and moves it forward with
+ * {@link #commit(long)}; segments entirely before it are deleted.
+ * <p>
+ * Records are checked against their CRC on open, for those after the committed
+ * position, and again when read. The log ends at the first invalid record of the
+ * last segment, so a record torn by a crash is dropped and overwritten; an invalid
+ * record in an earlier segment drops the rest of that segment.
+ */
+public class IngestLog implements Closeable {
+
+    static final int HEADER_SIZE = 16;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object flushLock = new Object();
+    private final ByteBuffer scratch;
+    private final CRC32C crc = new CRC32C();
+
+    private Segment active;
+    private volatile long writtenPosition;
+    private volatile long durablePosition;
+    private volatile long committedPosition;
+    private final long recoveredRecords;
+
+    private IngestLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.scratch = ByteBuffer.allocate(Math.min(segmentSize, 64 * 1024));
+
+        Files.createDirectories(directory);
+        committedPosition = readCheckpoint();
+        for (long base : listSegments()) {
+            if (base + segmentSize <= committedPosition) {
+                Files.delete(segmentPath(base));
+            } else {
+                segments.put(base, Segment.map(segmentPath(base), base, segmentSize));
+            }
+        }
+        if (segments.isEmpty()) {
+            long base = committedPosition;
+            segments.put(base, Segment.map(segmentPath(base), base, segmentSize));
+        }
+        // Without a checkpoint, everything still on disk is replayed
+        committedPosition = Math.max(committedPosition, segments.firstKey());
+
+        long[] recovered = recover();
+        writtenPosition = recovered[0];
+        durablePosition = recovered[0];
+        recoveredRecords = recovered[1];
+        active = segments.lastEntry().getValue();
+    }
+
+    /**
+     * Opens the log in {@code directory}, creating it if needed, and recovers the
+     * records left by a previous run.
+     */
+    public static IngestLog open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Segment size must be at least 1 KiB");
+        }
+        return new IngestLog(directory, segmentSize);
+    }
+
+
+    /**
+     * Appends the deals and returns the position following the last one. The
+     * records are not durable until {@link #awaitDurable(long)} returns for it.
+     */
+    public synchronized long append(List<FxDeal> deals, long appendedAtMillis) {
+        for (FxDeal deal : deals) {
+            scratch.clear();
+            scratch.position(HEADER_SIZE);
+            try {
+                encode(deal, scratch);
+            } catch (BufferOverflowException e) {
+                throw new IllegalArgumentException("Deal " + deal.getDealUniqueId() + " does not fit in a log record");
+            }
+            int payloadLength = scratch.position() - HEADER_SIZE;
+            scratch.putLong(8, appendedAtMillis);
+            crc.reset();
+            crc.update(scratch.array(), 8, 8 + payloadLength);
+            scratch.putInt(0, payloadLength);
+            scratch.putInt(4, (int) crc.getValue());
+
+            int recordSize = HEADER_SIZE + payloadLength;
+            int offset = (int) (writtenPosition - active.base);
+            if (offset + recordSize > segmentSize) {
+                roll();
+                offset = 0;
+            }
+            active.buffer.put(offset, scratch.array(), 0, recordSize);
+            writtenPosition = active.base + offset + recordSize;
+        }
+        return writtenPosition;
+    }
+
+    private void roll() {
+        long base = active.base + segmentSize;
+        try {
+            active = Segment.map(segmentPath(base), base, segmentSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create ingest log segment " + base, e);
+        }
+        segments.put(base, active);
+        // Space left in the previous segment is zero-filled, which reads as its end marker
+        writtenPosition = base;
+    }
+
+
+    /**
+     * Blocks until every record before {@code position} is on disk. Callers that
+     * arrive while a flush is running are covered together by the next one.
+     */
+    public void awaitDurable(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durablePosition >= position) {
+                return;
+            }
+            long target = writtenPosition;
+            Long from = segments.floorKey(durablePosition);
+            for (Segment segment : segments.subMap(from == null ? 0 : from, true, target, false).values()) {
+                segment.buffer.force();
+            }
+            durablePosition = target;
+        }
+    }
+
+
+    /**
+     * Reads up to {@code max} durable records starting at {@code position}, which
+     * must be a position returned by this log.
+     */
+    public List<Entry> read(long position, int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        long limit = durablePosition;
+        while (entries.size() < max && position < limit) {
+            Map.Entry<Long, Segment> found = segments.floorEntry(position);
+            if (found == null) {
+                throw new IllegalStateException("Ingest log position " + position + " was already deleted");
+            }
+            Segment segment = found.getValue();
+            int offset = (int) (position - segment.base);
+            // Checked like on open, which skipped the rest of a segment with a torn record
+            int length = validRecordLength(segment, offset);
+            if (length == 0) {
+                position = segment.base + segmentSize;
+                continue;
+            }
+            byte[] record = new byte[HEADER_SIZE + length];
+            segment.buffer.get(offset, record);
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            long appendedAt = buffer.getLong(8);
+            buffer.position(HEADER_SIZE);
+            position = segment.base + offset + record.length;
+            entries.add(new Entry(decode(buffer), appendedAt, position));
+        }
+        return entries;
+    }
+
+
+    /**
+     * Marks every record before {@code position} as consumed. The position is
+     * saved so a restart resumes from it, and fully consumed segments are deleted.
+     * Called by the single consumer of the log.
+     */
+    public void commit(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, Long.toString(position));
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committedPosition = position;
+
+        Long current = segments.floorKey(position);
+        for (Long base : List.copyOf(segments.headMap(current, false).keySet())) {
+            segments.remove(base);
+            Files.deleteIfExists(segmentPath(base));
+        }
+    }
+
+
+    public long committedPosition() {
+        return committedPosition;
+    }
+
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Number of records found after the committed position when the log was opened.
+     */
+    public long recoveredRecords() {
+        return recoveredRecords;
+    }
+
+
+    @Override
+    public void close() {
+        awaitDurable(writtenPosition);
+        segments.clear();
+    }
+
+
+    // Returns the end of the valid records and how many there are after the checkpoint
+    private long[] recover() throws IOException {
+        long position = committedPosition;
+        long records = 0;
+        while (true) {
+            Map.Entry<Long, Segment> found = segments.floorEntry(position);
+            Segment segment = found.getValue();
+            boolean last = segment == segments.lastEntry().getValue();
+            int offset = (int) (position - segment.base);
+            int length = validRecordLength(segment, offset);
+            if (length > 0) {
+                position += HEADER_SIZE + length;
+                records++;
+            } else if (!last) {
+                position = segment.base + segmentSize;
+            } else {
+                zeroFill(segment, offset);
+                return new long[]{position, records};
+            }
+        }
+    }
+
+    private int validRecordLength(Segment segment, int offset) {
+        if (offset + HEADER_SIZE > segmentSize) {
+            return 0;
+        }
+        int length = segment.buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+            return 0;
+        }
+        byte[] record = new byte[8 + length];
+        segment.buffer.get(offset + 8, record);
+        // Not the shared checksum: the consumer reads while producers append
+        CRC32C checksum = new CRC32C();
+        checksum.update(record);
+        return (int) checksum.getValue() == segment.buffer.getInt(offset + 4) ? length : 0;
+    }
+
+    private void zeroFill(Segment segment, int offset) throws IOException {
+        byte[] zeros = new byte[Math.min(segmentSize - offset, 64 * 1024)];
+        for (int at = offset; at < segmentSize; at += zeros.length) {
+            segment.buffer.put(at, zeros, 0, Math.min(zeros.length, segmentSize - at));
+        }
+        segment.buffer.force();
+    }
+
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        return Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+
+    private static void encode(FxDeal deal, ByteBuffer out) {
+        byte[] id = deal.getDealUniqueId().getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) id.length).put(id);
+        out.put(deal.getFromCurrencyIsoCode().getBytes(StandardCharsets.US_ASCII));
+        out.put(deal.getToCurrencyIsoCode().getBytes(StandardCharsets.US_ASCII));
+        out.putLong(deal.getDealTimestamp().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(deal.getDealTimestamp().getNano());
+        byte[] unscaled = deal.getDealAmount().unscaledValue().toByteArray();
+        out.putInt(deal.getDealAmount().scale());
+        out.putShort((short) unscaled.length).put(unscaled);
+    }
+
+    private static FxDeal decode(ByteBuffer in) {
+        String id = readString(in, in.getShort(), StandardCharsets.UTF_8);
+        String from = readString(in, 3, StandardCharsets.US_ASCII);
+        String to = readString(in, 3, StandardCharsets.US_ASCII);
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        int scale = in.getInt();
+        byte[] unscaled = new byte[in.getShort()];
+        in.get(unscaled);
+        return FxDeal.builder()
+                .dealUniqueId(id)
+                .fromCurrencyIsoCode(from)
+                .toCurrencyIsoCode(to)
+                .dealTimestamp(timestamp)
+                .dealAmount(new BigDecimal(new BigInteger(unscaled), scale))
+                .build();
+    }
+
+    private static String readString(ByteBuffer in, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, charset);
+    }
+
+
+    /**
+     * A deal read back from the log, with the position of the record that follows it.
+     */
+    public record Entry(FxDeal deal, long appendedAtMillis, long nextPosition) {
+    }
+
+    private record Segment(long base, MappedByteBuffer buffer) {
+
+        static Segment map(Path file, long base, int size) throws IOException {
+            // The mapping stays valid once the file is closed; new files are zero-filled
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(size);
+                return new Segment(base, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+    }
+}
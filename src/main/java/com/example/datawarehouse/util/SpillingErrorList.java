@@ -0,0 +1,256 @@
+package com.example.datawarehouse.util;
+
+import com.example.datawarehouse.dto.response.ImportSummaryResponse.ErrorDetail;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Append-only list of import errors that keeps the first {@code maxInMemory}
+ * entries on the heap and writes the rest to a temporary file, so a large import
+ * with many skipped deals does not hold its whole error report in memory.
+ * <p>
+ * Iteration reads the spilled entries back in order, one at a time. The list does
+ * not implement {@link java.util.RandomAccess}, so Jackson serializes it through
+ * its iterator. Closing the list deletes the file, after which the spilled entries
+ * can no longer be read; a list that is never closed has its file deleted once it
+ * is no longer reachable. Not thread-safe, except for {@link #close()}.
+ */
+public class SpillingErrorList extends AbstractList<ErrorDetail> implements Closeable {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // DataOutput.writeUTF takes at most 65535 bytes, i.e. 21845 chars of three bytes
+    private static final int MAX_STRING_LENGTH = 20_000;
+
+    private final int maxInMemory;
+    private final List<ErrorDetail> head = new ArrayList<>();
+    private SpillFile spillFile;
+    private Cleaner.Cleanable cleanable;
+    private volatile boolean closed;
+    private int spilled;
+
+    public SpillingErrorList(int maxInMemory) {
+        this.maxInMemory = Math.max(0, maxInMemory);
+    }
+
+    @Override
+    public boolean add(ErrorDetail error) {
+        if (head.size() < maxInMemory) {
+            head.add(error);
+        } else {
+            checkOpen();
+            try {
+                if (spillFile == null) {
+                    spillFile = new SpillFile();
+                    cleanable = CLEANER.register(this, spillFile);
+                }
+                write(spillFile.out, error);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not spill import errors to disk", e);
+            }
+            spilled++;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public ErrorDetail get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (index < head.size()) {
+            return head.get(index);
+        }
+        Iterator<ErrorDetail> it = iterator();
+        for (int i = 0; i < index; i++) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    @Override
+    public int size() {
+        return head.size() + spilled;
+    }
+
+    /**
+     * @return the number of entries held in the temporary file
+     */
+    public int spilledCount() {
+        return spilled;
+    }
+
+    @Override
+    public Iterator<ErrorDetail> iterator() {
+        return new Iterator<>() {
+            private final int expectedSize = size();
+            private int position;
+            private DataInputStream in;
+
+            @Override
+            public boolean hasNext() {
+                return position < expectedSize;
+            }
+
+            @Override
+            public ErrorDetail next() {
+                if (!hasNext()) {
+                    close();
+                    throw new NoSuchElementException();
+                }
+                if (position < head.size()) {
+                    return head.get(position++);
+                }
+                checkOpen();
+                try {
+                    if (in == null) {
+                        spillFile.out.flush();
+                        in = new DataInputStream(new BufferedInputStream(
+                                Files.newInputStream(spillFile.path), BUFFER_SIZE));
+                    }
+                    ErrorDetail error = read(in);
+                    if (++position == expectedSize) {
+                        close();
+                    }
+                    return error;
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException("Could not read spilled import errors", e);
+                }
+            }
+
+            private void close() {
+                if (in != null) {
+                    try {
+                        in.close();
+                    } catch (IOException ignored) {
+                        // read-only stream, nothing to recover
+                    }
+                    in = null;
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Closes and deletes the temporary file, if any. Safe to call more than once and
+     * from another thread than the one that filled the list.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
+
+    // Exposed for tests
+    Path spillPath() {
+        return spillFile != null ? spillFile.path : null;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Spilled import errors were already released");
+        }
+    }
+
+
+    private static void write(DataOutputStream out, ErrorDetail error) throws IOException {
+        writeNullable(out, error.getDealUniqueId());
+        writeNullable(out, error.getReason());
+        out.writeInt(error.getIndex() != null ? error.getIndex() : -1);
+        List<String> details = error.getDetails();
+        out.writeInt(details != null ? details.size() : -1);
+        if (details != null) {
+            for (String detail : details) {
+                writeNullable(out, detail);
+            }
+        }
+    }
+
+    private static ErrorDetail read(DataInputStream in) throws IOException {
+        String dealUniqueId = readNullable(in);
+        String reason = readNullable(in);
+        int index = in.readInt();
+        int detailCount = in.readInt();
+        List<String> details = null;
+        if (detailCount >= 0) {
+            details = new ArrayList<>(detailCount);
+            for (int i = 0; i < detailCount; i++) {
+                details.add(readNullable(in));
+            }
+        }
+        return ErrorDetail.builder()
+                .dealUniqueId(dealUniqueId)
+                .reason(reason)
+                .index(index >= 0 ? index : null)
+                .details(details)
+                .build();
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value.length() > MAX_STRING_LENGTH ? value.substring(0, MAX_STRING_LENGTH) : value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        try {
+            return in.readUTF();
+        } catch (EOFException e) {
+            throw new IOException("Spilled import errors are truncated", e);
+        }
+    }
+
+
+    /**
+     * The temporary file and its writer, closed and deleted when the list is closed,
+     * or by the cleaner as a backstop. Holds no reference to the list so that the
+     * list can become unreachable.
+     */
+    private static final class SpillFile implements Runnable {
+
+        private final Path path;
+        private final DataOutputStream out;
+
+        SpillFile() throws IOException {
+            this.path = Files.createTempFile("fxdeals-import-errors-", ".bin");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        }
+
+        @Override
+        public void run() {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // the file is deleted below either way
+            }
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // left in the temp directory
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.datawarehouse.validation;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.exception.InvalidDealException;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints declared on
+ * {@link FxDealRequest}, used on the import paths instead of the reflective
+ * validator. It accepts exactly what the annotations accept and reports the same
+ * {@code field: message} strings, sorted; a valid deal allocates nothing.
+ */
+@Component
+public class FxDealRequestValidator {
+
+    public static final String ID_REQUIRED = "dealUniqueId: Deal Unique ID is required";
+    public static final String ID_TOO_LONG = "dealUniqueId: Deal Unique ID must not exceed 100 characters";
+    public static final String FROM_REQUIRED = "fromCurrencyIsoCode: From Currency ISO Code is required";
+    public static final String FROM_INVALID = "fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code";
+    public static final String TO_REQUIRED = "toCurrencyIsoCode: To Currency ISO Code is required";
+    public static final String TO_INVALID = "toCurrencyIsoCode: To Currency must be a valid 3-letter ISO code";
+    public static final String TIMESTAMP_REQUIRED = "dealTimestamp: Deal Timestamp is required";
+    public static final String AMOUNT_REQUIRED = "dealAmount: Deal Amount is required";
+    public static final String AMOUNT_NOT_POSITIVE = "dealAmount: Deal Amount must be positive";
+    public static final String AMOUNT_FORMAT = "dealAmount: Deal Amount format is invalid";
+
+    private static final int MAX_ID_LENGTH = 100;
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.0001");
+    private static final int MAX_INTEGER_DIGITS = 15;
+    private static final int MAX_FRACTION_DIGITS = 4;
+
+    // ISO code characters, as matched by ^[A-Z]{3}$
+    private static final boolean[] CODE_CHARS = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CODE_CHARS[c] = true;
+        }
+    }
+
+    /**
+     * @return the violations of {@code deal} as {@code field: message}, sorted, or
+     *         an empty list if it is valid
+     */
+    public List<String> validate(FxDealRequest deal) {
+        List<String> violations = null;
+
+        String dealUniqueId = deal.getDealUniqueId();
+        if (isBlank(dealUniqueId)) {
+            violations = add(violations, ID_REQUIRED);
+        }
+        if (dealUniqueId != null && dealUniqueId.length() > MAX_ID_LENGTH) {
+            violations = add(violations, ID_TOO_LONG);
+        }
+
+        String from = deal.getFromCurrencyIsoCode();
+        if (isBlank(from)) {
+            violations = add(violations, FROM_REQUIRED);
+        }
+        if (from != null && !isIsoCode(from)) {
+            violations = add(violations, FROM_INVALID);
+        }
+
+        String to = deal.getToCurrencyIsoCode();
+        if (isBlank(to)) {
+            violations = add(violations, TO_REQUIRED);
+        }
+        if (to != null && !isIsoCode(to)) {
+            violations = add(violations, TO_INVALID);
+        }
+
+        if (deal.getDealTimestamp() == null) {
+            violations = add(violations, TIMESTAMP_REQUIRED);
+        }
+
+        BigDecimal amount = deal.getDealAmount();
+        if (amount == null) {
+            violations = add(violations, AMOUNT_REQUIRED);
+        } else {
+            if (amount.compareTo(MIN_AMOUNT) < 0) {
+                violations = add(violations, AMOUNT_NOT_POSITIVE);
+            }
+            // Same arithmetic as Hibernate Validator's @Digits check for BigDecimal
+            int scale = amount.scale();
+            if (amount.precision() - scale > MAX_INTEGER_DIGITS || Math.max(scale, 0) > MAX_FRACTION_DIGITS) {
+                violations = add(violations, AMOUNT_FORMAT);
+            }
+        }
+
+        if (violations == null) {
+            return List.of();
+        }
+        violations.sort(null);
+        return violations;
+    }
+
+
+    /**
+     * Checks every deal before any is imported.
+     *
+     * @throws InvalidDealException for the first invalid deal
+     */
+    public void validateAll(List<FxDealRequest> deals) {
+        for (int i = 0; i < deals.size(); i++) {
+            FxDealRequest deal = deals.get(i);
+            List<String> violations = deal == null ? List.of("Deal must not be null") : validate(deal);
+            if (!violations.isEmpty()) {
+                throw new InvalidDealException(i, violations);
+            }
+        }
+    }
+
+
+    private static List<String> add(List<String> violations, String violation) {
+        List<String> list = violations != null ? violations : new ArrayList<>(4);
+        list.add(violation);
+        return list;
+    }
+
+    // @NotBlank trims characters up to and including the space before checking the length
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIsoCode(String value) {
+        if (value.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = value.charAt(i);
+            if (c >= CODE_CHARS.length || !CODE_CHARS[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
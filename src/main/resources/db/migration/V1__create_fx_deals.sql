@@ -0,0 +1,38 @@
+-- FX deals, range-partitioned by month on deal_timestamp.
+-- Monthly partitions are created and detached by FxDealPartitionManager; rows
+-- outside every monthly range land in fx_deals_default.
+
+CREATE SEQUENCE fx_deals_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE fx_deals (
+    id                      BIGINT         NOT NULL,
+    deal_unique_id          VARCHAR(100)   NOT NULL,
+    from_currency_iso_code  VARCHAR(3)     NOT NULL,
+    to_currency_iso_code    VARCHAR(3)     NOT NULL,
+    deal_timestamp          TIMESTAMP(6)   NOT NULL,
+    deal_amount             NUMERIC(19, 4) NOT NULL,
+    created_at              TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id, deal_timestamp)
+) PARTITION BY RANGE (deal_timestamp);
+
+CREATE TABLE fx_deals_default PARTITION OF fx_deals DEFAULT;
+
+CREATE INDEX idx_fx_deals_deal_unique_id ON fx_deals (deal_unique_id);
+
+-- A unique index on a partitioned table must include the partition key, so
+-- deal_unique_id uniqueness across partitions is enforced through this table.
+-- Keys are kept when a partition is detached: an archived deal ID stays taken.
+CREATE TABLE fx_deal_keys (
+    deal_unique_id VARCHAR(100) PRIMARY KEY
+);
+
+CREATE FUNCTION fx_deals_register_key() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO fx_deal_keys (deal_unique_id) VALUES (NEW.deal_unique_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_fx_deals_register_key
+    BEFORE INSERT ON fx_deals
+    FOR EACH ROW EXECUTE FUNCTION fx_deals_register_key();
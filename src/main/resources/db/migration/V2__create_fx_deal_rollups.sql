@@ -0,0 +1,16 @@
+-- Hourly totals per currency pair, maintained by the import path in the same
+-- transaction as the deals they cover. Daily figures are summed from these rows.
+
+CREATE TABLE fx_deal_rollups (
+    from_currency_iso_code  VARCHAR(3)     NOT NULL,
+    to_currency_iso_code    VARCHAR(3)     NOT NULL,
+    bucket_start            TIMESTAMP(6)   NOT NULL,
+    deal_count              BIGINT         NOT NULL,
+    total_amount            NUMERIC(38, 4) NOT NULL,
+    PRIMARY KEY (from_currency_iso_code, to_currency_iso_code, bucket_start)
+);
+
+INSERT INTO fx_deal_rollups (from_currency_iso_code, to_currency_iso_code, bucket_start, deal_count, total_amount)
+SELECT from_currency_iso_code, to_currency_iso_code, date_trunc('hour', deal_timestamp), COUNT(*), SUM(deal_amount)
+FROM fx_deals
+GROUP BY from_currency_iso_code, to_currency_iso_code, date_trunc('hour', deal_timestamp);
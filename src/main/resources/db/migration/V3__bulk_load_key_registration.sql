@@ -0,0 +1,13 @@
+-- The COPY bulk loader claims deal IDs in fx_deal_keys with one set-based
+-- INSERT ... ON CONFLICT DO NOTHING before inserting the deals, and sets
+-- fxdeals.keys_registered for its transaction so the per-row trigger does not
+-- register the same keys again. Every other insert path is unchanged.
+
+CREATE OR REPLACE FUNCTION fx_deals_register_key() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('fxdeals.keys_registered', true) IS DISTINCT FROM 'on' THEN
+        INSERT INTO fx_deal_keys (deal_unique_id) VALUES (NEW.deal_unique_id);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
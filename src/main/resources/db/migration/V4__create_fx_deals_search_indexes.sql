@@ -0,0 +1,15 @@
+-- Indexes for GET /api/deals/search, which filters on currency pair, deal time and
+-- amount and pages in (deal_timestamp, id) order. Created on the partitioned table,
+-- so every existing and future monthly partition gets its own copy.
+
+-- Pair filter, optionally with a time range: one ordered range scan per partition
+CREATE INDEX idx_fx_deals_pair_timestamp
+    ON fx_deals (from_currency_iso_code, to_currency_iso_code, deal_timestamp, id);
+
+-- Time range without a pair. Partition pruning narrows the months, this index
+-- serves the range and the keyset order inside them
+CREATE INDEX idx_fx_deals_timestamp_id ON fx_deals (deal_timestamp, id);
+
+-- Amount bands. Amounts are unrelated to insertion order, so a BRIN index would
+-- summarize nothing useful; a B-tree feeds bitmap scans for narrow bands
+CREATE INDEX idx_fx_deals_amount ON fx_deals (deal_amount);
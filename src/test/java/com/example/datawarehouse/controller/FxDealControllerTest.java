@@ -1,38 +1,153 @@
 package com.example.datawarehouse.controller;
 
+import com.example.datawarehouse.dto.request.DealSearchRequest;
 import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.DealLookupResponse;
+import com.example.datawarehouse.dto.response.DealPageResponse;
+import com.example.datawarehouse.dto.response.DealSearchResponse;
 import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.dto.response.ImportJobResponse;
 import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.dto.response.IngestAckResponse;
+import com.example.datawarehouse.dto.response.PairStatsResponse;
+import com.example.datawarehouse.exception.IdempotencyKeyReusedException;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.example.datawarehouse.exception.InvalidDealException;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.service.ClusterClient;
+import com.example.datawarehouse.service.ClusterImportService;
+import com.example.datawarehouse.service.DealExportService;
+import com.example.datawarehouse.service.DealFeed;
+import com.example.datawarehouse.service.DealSearchService;
+import com.example.datawarehouse.service.DealStatsService;
+import com.example.datawarehouse.service.FxDealBinaryImporter;
 import com.example.datawarehouse.service.FxDealService;
+import com.example.datawarehouse.service.FxDealStreamImporter;
+import com.example.datawarehouse.service.IdempotencyStore;
+import com.example.datawarehouse.service.ImportAdmission;
+import com.example.datawarehouse.service.ImportJobService;
+import com.example.datawarehouse.service.ImportRequestExecutor;
+import com.example.datawarehouse.service.IngestService;
+import com.example.datawarehouse.service.ParallelImportService;
+import com.example.datawarehouse.util.FxDealBinaryFormat;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FxDealController.class)
+@Import(FxDealRequestValidator.class)
 class FxDealControllerTest {
 
+    private static final String CLUSTER_SECRET = "s3cret";
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private FxDealService fxDealService;
 
+    @MockBean
+    private FxDealStreamImporter fxDealStreamImporter;
+
+    @MockBean
+    private FxDealBinaryImporter fxDealBinaryImporter;
+
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private ParallelImportService parallelImportService;
+
+    @MockBean
+    private DealStatsService dealStatsService;
+
+    @MockBean
+    private DealSearchService dealSearchService;
+
+    @MockBean
+    private DealExportService dealExportService;
+
+    @MockBean
+    private DealFeed dealFeed;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private ImportRequestExecutor importRequestExecutor;
+
+    @MockBean
+    private ImportAdmission importAdmission;
+
+    @MockBean
+    private IngestService ingestService;
+
+    @MockBean
+    private ClusterImportService clusterImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        when(importRequestExecutor.submit(any())).thenAnswer(invocation -> {
+            DeferredResult<Object> result = new DeferredResult<>();
+            try {
+                result.setResult(invocation.<Callable<?>>getArgument(0).call());
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+            return result;
+        });
+        when(importAdmission.admit(anyInt())).thenReturn(ImportAdmission.Permit.UNLIMITED);
+        when(importAdmission.admit(any(ImportAdmission.Lane.class))).thenReturn(ImportAdmission.Permit.UNLIMITED);
+    }
+
     // --- Data Setup ---
     private FxDealRequest createValidRequest() {
         return FxDealRequest.builder()
@@ -53,6 +168,13 @@ class FxDealControllerTest {
                 .build();
     }
 
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     // --- Test: POST /deals/import ---
 
     @Test
@@ -65,7 +187,7 @@ class FxDealControllerTest {
         when(fxDealService.importDeals(anyList())).thenReturn(mockSummary);
 
         // Act & Assert
-        mockMvc.perform(post("/deals/import")
+        performAsync(post("/api/deals/import")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requests)))
                 .andExpect(status().isOk()) // Vérifie le statut HTTP 200
@@ -74,18 +196,442 @@ class FxDealControllerTest {
                 .andExpect(jsonPath("$.skipped").value(0));
     }
 
+    @Test
+    void importDeals_WhenParallelRequested_ShouldUseParallelImport() throws Exception {
+        // Arrange
+        List<FxDealRequest> requests = Collections.singletonList(createValidRequest());
+        when(parallelImportService.importDeals(anyList())).thenReturn(createSummary(1, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .param("parallel", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    @Test
+    void importDeals_WhenLenient_ShouldReportInvalidDealsInSummary() throws Exception {
+        // Arrange
+        FxDealRequest invalid = createValidRequest();
+        invalid.setFromCurrencyIsoCode("US");
+        List<FxDealRequest> requests = List.of(createValidRequest(), invalid);
+        ImportSummaryResponse summary = createSummary(1, 0);
+        summary.setErrors(new ArrayList<>());
+        summary.recordInvalid(1, invalid.getDealUniqueId(),
+                List.of("fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code"));
+        when(fxDealStreamImporter.importLenient(anyList())).thenReturn(summary);
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .param("lenient", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].reason").value("Validation failed"))
+                .andExpect(jsonPath("$.errors[0].details[0]")
+                        .value("fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code"));
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    @Test
+    void importDeals_WhenClustered_ShouldRouteDealsToOwningNodes() throws Exception {
+        // Arrange
+        List<FxDealRequest> requests = Collections.singletonList(createValidRequest());
+        when(clusterImportService.isEnabled()).thenReturn(true);
+        when(clusterImportService.importDeals(anyList(), eq(false))).thenReturn(createSummary(1, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    @Test
+    void importDeals_WhenForwardedByAnotherNode_ShouldImportLocally() throws Exception {
+        // Arrange
+        List<FxDealRequest> requests = Collections.singletonList(createValidRequest());
+        when(clusterImportService.isEnabled()).thenReturn(true);
+        when(clusterImportService.isForwardedByPeer("node-2", CLUSTER_SECRET)).thenReturn(true);
+        when(fxDealService.importDeals(anyList())).thenReturn(createSummary(1, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .header(ClusterClient.FORWARDED_BY_HEADER, "node-2")
+                        .header(ClusterClient.SECRET_HEADER, CLUSTER_SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        verify(clusterImportService, never()).importDeals(anyList(), anyBoolean());
+    }
+
+    @Test
+    void importDeals_WhenLenientAndParallel_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import")
+                        .param("lenient", "true")
+                        .param("parallel", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(fxDealStreamImporter, parallelImportService);
+    }
+
     @Test
     void importDeals_WhenEmptyList_ShouldReturnBadRequest() throws Exception {
         // Arrange
         List<FxDealRequest> emptyRequests = Collections.emptyList();
 
         // Act & Assert
-        mockMvc.perform(post("/deals/import")
+        performAsync(post("/api/deals/import")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(emptyRequests)))
                 .andExpect(status().isBadRequest()); // Vérifie le statut HTTP 400
     }
 
+    @Test
+    void importDeals_WhenDealInvalid_ShouldReturnBadRequestWithoutImporting() throws Exception {
+        // Arrange
+        FxDealRequest invalid = createValidRequest();
+        invalid.setFromCurrencyIsoCode("usd");
+        List<FxDealRequest> requests = List.of(createValidRequest(), invalid);
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request payload"))
+                .andExpect(jsonPath("$.index").value(1))
+                .andExpect(jsonPath("$.details[0]")
+                        .value("[1].fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code"));
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    @Test
+    void importDeals_WhenIdempotencyKeyGiven_ShouldReturnStoredSummary() throws Exception {
+        // Arrange
+        when(idempotencyStore.execute(eq("key-1"), any(byte[].class), any())).thenReturn(createSummary(1, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    @Test
+    void importDeals_WhenBodyOrFlagsDiffer_ShouldFingerprintDifferently() throws Exception {
+        // Arrange
+        when(idempotencyStore.execute(eq("key-1"), any(byte[].class), any())).thenReturn(createSummary(1, 0));
+        FxDealRequest request = createValidRequest();
+        String body = objectMapper.writeValueAsString(List.of(request));
+        request.setDealAmount(new BigDecimal("1000.01"));
+        String otherBody = objectMapper.writeValueAsString(List.of(request));
+
+        // Act
+        for (String content : List.of(body, body, otherBody)) {
+            performAsync(post("/api/deals/import")
+                    .header("Idempotency-Key", "key-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(content))
+                    .andExpect(status().isOk());
+        }
+        performAsync(post("/api/deals/import?lenient=true")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<byte[]> fingerprints = ArgumentCaptor.forClass(byte[].class);
+        verify(idempotencyStore, times(4)).execute(eq("key-1"), fingerprints.capture(), any());
+        List<byte[]> captured = fingerprints.getAllValues();
+        assertThat(captured.get(0)).hasSize(32).isEqualTo(captured.get(1));
+        assertThat(captured.get(2)).isNotEqualTo(captured.get(0));
+        assertThat(captured.get(3)).isNotEqualTo(captured.get(0));
+    }
+
+    @Test
+    void importDeals_WhenIdempotencyKeyReused_ShouldReturnUnprocessableEntity() throws Exception {
+        // Arrange
+        when(idempotencyStore.execute(eq("key-1"), any(byte[].class), any()))
+                .thenThrow(new IdempotencyKeyReusedException("key-1"));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value(
+                        "Idempotency-Key 'key-1' was already used for a different request"));
+    }
+
+    @Test
+    void importDeals_WhenIdempotencyKeyCompleted_ShouldReplayWithoutAdmission() throws Exception {
+        // Arrange
+        when(idempotencyStore.lookup(eq("key-1"), any(byte[].class))).thenReturn(Optional.of(createSummary(2, 0)));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+        verify(importAdmission, never()).admit(anyInt());
+        verify(idempotencyStore, never()).execute(any(), any(), any());
+    }
+
+    @Test
+    void importDeals_WhenIdempotencyKeyInProgress_ShouldReturnTooManyRequestsWithoutAdmission() throws Exception {
+        // Arrange
+        when(idempotencyStore.lookup(eq("key-1"), any(byte[].class)))
+                .thenThrow(new ImportRejectedException("Import with this Idempotency-Key is still in progress",
+                        Duration.ofSeconds(5)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"));
+        verify(importAdmission, never()).admit(anyInt());
+        verify(importRequestExecutor, never()).submit(any());
+    }
+
+    @Test
+    void importDeals_WhenIdempotencyKeyTooLong_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import")
+                        .header("Idempotency-Key", "k".repeat(256))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(idempotencyStore, fxDealService);
+    }
+
+    @Test
+    void importDeals_WhenLaneFull_ShouldReturnTooManyRequestsWithoutImporting() throws Exception {
+        // Arrange
+        when(importAdmission.admit(1))
+                .thenThrow(new ImportRejectedException("Too many small imports in progress", Duration.ofSeconds(2)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+
+        verifyNoInteractions(fxDealService);
+    }
+
+    @Test
+    void importDeals_WhenForwardedByAnotherNode_ShouldNotBeAdmittedAgain() throws Exception {
+        // Arrange
+        when(importAdmission.admit(1))
+                .thenThrow(new ImportRejectedException("Too many small imports in progress", Duration.ofSeconds(2)));
+        when(clusterImportService.isForwardedByPeer("node-2", CLUSTER_SECRET)).thenReturn(true);
+        when(fxDealService.importDeals(anyList())).thenReturn(createSummary(1, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .header(ClusterClient.FORWARDED_BY_HEADER, "node-2")
+                        .header(ClusterClient.SECRET_HEADER, CLUSTER_SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        verify(importAdmission, never()).admit(anyInt());
+    }
+
+    @Test
+    void importDeals_WhenForwardedHeaderNotFromPeer_ShouldAdmitAndRoute() throws Exception {
+        // Arrange
+        when(clusterImportService.isEnabled()).thenReturn(true);
+        when(clusterImportService.isForwardedByPeer("node-2", "guessed")).thenReturn(false);
+        when(clusterImportService.importDeals(anyList(), eq(false))).thenReturn(createSummary(1, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .header(ClusterClient.FORWARDED_BY_HEADER, "node-2")
+                        .header(ClusterClient.SECRET_HEADER, "guessed")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        verify(importAdmission).admit(1);
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    @Test
+    void importDeals_WhenBinaryBody_ShouldUseBinaryImporter() throws Exception {
+        // Arrange
+        when(fxDealBinaryImporter.importBinary(any(InputStream.class))).thenReturn(createSummary(3, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import")
+                        .contentType(FxDealBinaryFormat.MEDIA_TYPE)
+                        .content(new byte[]{'F', 'X', 'D', 'B', 1, 0, 0, 0, 0}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3));
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    // --- Test: POST /deals/import/async ---
+
+    @Test
+    void importDealsAsync_WhenAccepted_ShouldReturnJobLocation() throws Exception {
+        // Arrange
+        ImportJobResponse job = ImportJobResponse.builder()
+                .jobId("job-1")
+                .status(ImportJobResponse.Status.QUEUED)
+                .build();
+        when(importJobService.submit(anyList())).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/deals/import/job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void importDealsAsync_WhenQueueFull_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        when(importJobService.submit(anyList()))
+                .thenThrow(new ImportRejectedException("Too many import jobs in progress", Duration.ofSeconds(5)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    // --- Test: POST /deals/import/ingest ---
+
+    @Test
+    void ingestDeals_WhenLogged_ShouldReturnAccepted() throws Exception {
+        // Arrange
+        when(ingestService.ingest(anyList())).thenReturn(IngestAckResponse.builder().accepted(1).pending(7).build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest()))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.pending").value(7));
+    }
+
+    @Test
+    void ingestDeals_WhenDealInvalid_ShouldReturnBadRequestWithoutLogging() throws Exception {
+        // Arrange
+        FxDealRequest invalid = createValidRequest();
+        invalid.setDealAmount(null);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/import/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(invalid))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(ingestService);
+    }
+
+    @Test
+    void getImportJob_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(importJobService.getJob("missing")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/import/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+
+    // --- Test: POST /deals/import/stream ---
+
+    @Test
+    void importDealsStream_WhenNdjsonBody_ShouldReturnOkAndSummary() throws Exception {
+        // Arrange
+        when(fxDealStreamImporter.importStream(any(InputStream.class), eq(false), eq(false))).thenReturn(createSummary(2, 0));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(createValidRequest()) + "\n"
+                                + objectMapper.writeValueAsString(createValidRequest())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.skipped").value(0));
+    }
+
+    @Test
+    void importDealsStream_WhenBulk_ShouldUseBulkLoadMode() throws Exception {
+        // Arrange
+        when(fxDealStreamImporter.importStream(any(InputStream.class), eq(true), eq(false))).thenReturn(createSummary(1, 1));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import/stream")
+                        .param("bulk", "true")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(createValidRequest()) + "\n"
+                                + objectMapper.writeValueAsString(createValidRequest())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.skipped").value(1));
+    }
+
+    @Test
+    void importDealsStream_WhenLenient_ShouldPassLenientMode() throws Exception {
+        // Arrange
+        when(fxDealStreamImporter.importStream(any(InputStream.class), eq(false), eq(true)))
+                .thenReturn(createSummary(1, 1));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import/stream")
+                        .param("lenient", "true")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(createValidRequest())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.skipped").value(1));
+    }
+
+    @Test
+    void importDealsStream_WhenDealInvalid_ShouldReturnBadRequestWithIndex() throws Exception {
+        // Arrange
+        when(fxDealStreamImporter.importStream(any(InputStream.class), eq(false), eq(false)))
+                .thenThrow(new InvalidDealException(3, List.of("dealAmount: Deal Amount must be positive")));
+
+        // Act & Assert
+        performAsync(post("/api/deals/import/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid request payload"))
+                .andExpect(jsonPath("$.index").value(3))
+                .andExpect(jsonPath("$.details[0]").value("[3].dealAmount: Deal Amount must be positive"));
+    }
+
 
     // --- Test: GET /deals ---
 
@@ -94,14 +640,23 @@ class FxDealControllerTest {
         // Arrange
         FxDealResponse deal1 = FxDealResponse.builder().dealUniqueId("FX001").build();
         FxDealResponse deal2 = FxDealResponse.builder().dealUniqueId("FX002").build();
-        List<FxDealResponse> mockDeals = List.of(deal1, deal2);
 
-        // Simuler le service qui retourne une liste de deals
-        when(fxDealService.getAllDeals()).thenReturn(mockDeals);
+        // Simuler le service qui diffuse les deals un par un
+        doAnswer(invocation -> {
+            Consumer<FxDealResponse> consumer = invocation.getArgument(0);
+            consumer.accept(deal1);
+            consumer.accept(deal2);
+            return null;
+        }).when(fxDealService).streamAllDeals(any());
 
-        // Act & Assert
-        mockMvc.perform(get("/deals")
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/deals")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk()) // Vérifie le statut HTTP 200
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(2))
@@ -110,17 +665,235 @@ class FxDealControllerTest {
 
     @Test
     void getAllDeals_WhenNoDeals_ShouldReturnOkAndEmptyList() throws Exception {
-        // Arrange
-        List<FxDealResponse> emptyList = Collections.emptyList();
-
-        // Simuler le service qui retourne une liste vide
-        when(fxDealService.getAllDeals()).thenReturn(emptyList);
-
-        // Act & Assert
-        mockMvc.perform(get("/deals")
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/deals")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk()) // Vérifie le statut HTTP 200
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(0));
     }
+
+
+    @Test
+    void getAllDeals_WhenNdjsonRequested_ShouldStreamOneDealPerLine() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<FxDealResponse> consumer = invocation.getArgument(0);
+            consumer.accept(FxDealResponse.builder().dealUniqueId("FX001").build());
+            consumer.accept(FxDealResponse.builder().dealUniqueId("FX002").build());
+            return null;
+        }).when(fxDealService).streamAllDeals(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/deals").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), FxDealResponse.class)
+                .getDealUniqueId()).isEqualTo("FX002");
+    }
+
+
+    // --- Test: GET /deals/export ---
+
+    @Test
+    void exportDeals_ShouldStreamGzippedCsv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(3);
+            writer.write("id,dealUniqueId\n42,FX042\n");
+            return 1L;
+        }).when(dealExportService).exportCsv(any(), any(), eq(41L), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/deals/export")
+                        .param("format", "csv")
+                        .param("afterId", "41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", containsString("deals.csv.gz")))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream csv = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(csv.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,dealUniqueId\n42,FX042\n");
+        }
+    }
+
+    @Test
+    void exportDeals_WhenFormatUnsupported_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        doThrow(new InvalidRequestParameterException("Unsupported export format: xml (supported: csv)"))
+                .when(dealExportService).checkRequest(eq("xml"), any(), any());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+
+    // --- Test: GET /deals/feed ---
+
+    @Test
+    void subscribeToDeals_ShouldResumeFromLastEventId() throws Exception {
+        // Arrange
+        when(dealFeed.subscribe("lq2x-41")).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/feed")
+                        .header(FxDealController.LAST_EVENT_ID_HEADER, "lq2x-41")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(dealFeed).subscribe("lq2x-41");
+    }
+
+
+    // --- Test: GET /deals/page ---
+
+    @Test
+    void getDealsPage_ShouldReturnDealsAndNextCursor() throws Exception {
+        // Arrange
+        DealPageResponse page = DealPageResponse.builder()
+                .deals(List.of(FxDealResponse.builder().id(42L).dealUniqueId("FX042").build()))
+                .nextAfterId(42L)
+                .build();
+        when(fxDealService.getDealsPage(10L, 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/page")
+                        .param("afterId", "10")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealUniqueId").value("FX042"))
+                .andExpect(jsonPath("$.nextAfterId").value(42));
+    }
+
+
+    // --- Test: GET /deals/search ---
+
+    @Test
+    void searchDeals_ShouldBindFiltersAndReturnPage() throws Exception {
+        // Arrange
+        DealSearchResponse page = DealSearchResponse.builder()
+                .deals(List.of(FxDealResponse.builder().id(42L).dealUniqueId("FX042").build()))
+                .nextCursor("next")
+                .build();
+        DealSearchRequest expected = DealSearchRequest.builder()
+                .fromCurrency("USD")
+                .toCurrency("EUR")
+                .timestampFrom(LocalDateTime.of(2024, 11, 1, 0, 0))
+                .minAmount(new BigDecimal("100"))
+                .build();
+        when(dealSearchService.search(expected, "abc", 10)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/search")
+                        .param("fromCurrency", "USD")
+                        .param("toCurrency", "EUR")
+                        .param("timestampFrom", "2024-11-01T00:00:00")
+                        .param("minAmount", "100")
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealUniqueId").value("FX042"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+
+    // --- Test: GET /deals/{dealUniqueId} ---
+
+    @Test
+    void getDeal_WhenFound_ShouldReturnDeal() throws Exception {
+        // Arrange
+        when(fxDealService.findDeal("FX042"))
+                .thenReturn(Optional.of(FxDealResponse.builder().id(42L).dealUniqueId("FX042").build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/FX042"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(42));
+    }
+
+    @Test
+    void getDeal_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(fxDealService.findDeal("FX404")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/FX404"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void lookupDeals_ShouldReturnFoundAndMissing() throws Exception {
+        // Arrange
+        DealLookupResponse response = DealLookupResponse.builder()
+                .deals(List.of(FxDealResponse.builder().id(42L).dealUniqueId("FX042").build()))
+                .missing(List.of("FX404"))
+                .build();
+        when(fxDealService.findDeals(List.of("FX042", "FX404"))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/deals/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"FX042\",\"FX404\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deals[0].dealUniqueId").value("FX042"))
+                .andExpect(jsonPath("$.missing[0]").value("FX404"));
+    }
+
+
+    // --- Test: GET /deals/stats ---
+
+    @Test
+    void getPairStats_ShouldReturnBuckets() throws Exception {
+        // Arrange
+        PairStatsResponse stats = PairStatsResponse.builder()
+                .pair("USD/EUR")
+                .bucket("1d")
+                .buckets(List.of(PairStatsResponse.Bucket.builder()
+                        .bucketStart(LocalDateTime.of(2024, 11, 27, 0, 0))
+                        .dealCount(3)
+                        .totalAmount(new BigDecimal("1500.0000"))
+                        .build()))
+                .build();
+        when(dealStatsService.getPairStats("USD/EUR", "1d", LocalDateTime.of(2024, 11, 1, 0, 0), null))
+                .thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/stats")
+                        .param("pair", "USD/EUR")
+                        .param("bucket", "1d")
+                        .param("from", "2024-11-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[0].dealCount").value(3))
+                .andExpect(jsonPath("$.buckets[0].totalAmount").value(1500.0));
+    }
+
+    @Test
+    void getPairStats_WhenPairInvalid_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(dealStatsService.getPairStats("USDEUR", "1h", null, null))
+                .thenThrow(new InvalidRequestParameterException("pair must look like USD/EUR"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/deals/stats").param("pair", "USDEUR"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("pair must look like USD/EUR"));
+    }
 }
@@ -0,0 +1,153 @@
+package com.example.datawarehouse.repository;
+
+import com.example.datawarehouse.dto.request.DealSearchRequest;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealSearchRepository.Position;
+import com.example.datawarehouse.repository.DealSearchRepository.SearchQuery;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DealSearchRepositoryIntegrationTest {
+
+    private static final int DEALS = 40_000;
+
+    // Partition indexes are named after the partition and their columns
+    private static final String PAIR_INDEX = "from_currency_iso_code";
+    private static final String TIMESTAMP_INDEX = "deal_timestamp_id_idx";
+    private static final String AMOUNT_INDEX = "deal_amount_idx";
+
+    // A month that has its own partition; the deals, one a minute, fit in 28 days
+    private static final LocalDateTime MONTH_START = YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DealSearchRepository searchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void loadDeals() {
+        // 10 currency pairs, one deal a minute, amounts spread over 1..10000
+        jdbcTemplate.update("""
+                INSERT INTO fx_deals (id, deal_unique_id, from_currency_iso_code, to_currency_iso_code,
+                                      deal_timestamp, deal_amount, created_at)
+                SELECT g, 'SEARCH-' || g, (ARRAY['USD','EUR','GBP','JPY','CHF'])[g % 5 + 1],
+                       (ARRAY['CAD','AUD'])[g % 2 + 1], ?::timestamp + g * interval '1 minute',
+                       (g * 7919) % 10000 + 1, now()
+                FROM generate_series(1, ?) AS g
+                """, Timestamp.valueOf(MONTH_START), DEALS);
+        jdbcTemplate.execute("ANALYZE fx_deals");
+    }
+
+    @Test
+    void search_ShouldFilterAndPageInTimestampOrder() {
+        // Arrange
+        DealSearchRequest criteria = DealSearchRequest.builder()
+                .fromCurrency("USD")
+                .toCurrency("AUD")
+                .timestampFrom(MONTH_START)
+                .timestampTo(MONTH_START.plusDays(1))
+                .build();
+
+        // Act
+        List<FxDeal> firstPage = searchRepository.search(criteria, null, 10);
+        FxDeal last = firstPage.get(firstPage.size() - 1);
+        List<FxDeal> secondPage = searchRepository.search(criteria,
+                new Position(last.getDealTimestamp(), last.getId()), 10);
+
+        // Assert
+        assertThat(firstPage).hasSize(10)
+                .allSatisfy(deal -> assertThat(deal.getFromCurrencyIsoCode() + deal.getToCurrencyIsoCode())
+                        .isEqualTo("USDAUD"));
+        assertThat(firstPage).extracting(FxDeal::getDealTimestamp).isSorted();
+        assertThat(secondPage).hasSize(10);
+        assertThat(secondPage.get(0).getDealTimestamp()).isAfter(last.getDealTimestamp());
+    }
+
+    @Test
+    void pairAndTimeRange_ShouldUsePairIndex() {
+        // Act
+        String plan = explain(DealSearchRequest.builder()
+                .fromCurrency("USD")
+                .toCurrency("AUD")
+                .timestampFrom(MONTH_START.plusDays(3))
+                .timestampTo(MONTH_START.plusDays(10))
+                .build(), null);
+
+        // Assert
+        assertThat(plan).contains(PAIR_INDEX).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void pairAfterCursor_ShouldSeekWithPairIndex() {
+        // Act
+        String plan = explain(DealSearchRequest.builder()
+                .fromCurrency("EUR")
+                .toCurrency("CAD")
+                .timestampFrom(MONTH_START)
+                .timestampTo(MONTH_START.plusMonths(1))
+                .build(), new Position(MONTH_START.plusDays(5), 7200));
+
+        // Assert
+        assertThat(plan).contains(PAIR_INDEX).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void timeRangeOnly_ShouldUseTimestampIndex() {
+        // Act
+        String plan = explain(DealSearchRequest.builder()
+                .timestampFrom(MONTH_START.plusDays(2))
+                .timestampTo(MONTH_START.plusDays(4))
+                .build(), null);
+
+        // Assert
+        assertThat(plan).contains(TIMESTAMP_INDEX).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void narrowAmountBand_ShouldUseAmountIndex() {
+        // Act
+        String plan = explain(DealSearchRequest.builder()
+                .timestampFrom(MONTH_START)
+                .timestampTo(MONTH_START.plusMonths(1))
+                .minAmount(new BigDecimal("5000"))
+                .maxAmount(new BigDecimal("5001"))
+                .build(), null);
+
+        // Assert
+        assertThat(plan).contains(AMOUNT_INDEX).doesNotContain("Seq Scan");
+    }
+
+    private String explain(DealSearchRequest criteria, Position after) {
+        SearchQuery query = DealSearchRepository.buildQuery(criteria, after, 101);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query.sql(), String.class, query.args()));
+    }
+}
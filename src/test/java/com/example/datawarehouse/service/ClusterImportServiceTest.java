@@ -0,0 +1,250 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ClusterProperties;
+import com.example.datawarehouse.config.ImportRequestProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.DuplicateDealException;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterImportServiceTest {
+
+    private static final ClusterMembership.Node NODE_1 = new ClusterMembership.Node("node-1", "http://localhost:8081");
+    private static final ClusterMembership.Node NODE_2 = new ClusterMembership.Node("node-2", "http://localhost:8082");
+    private static final String SECRET = "s3cret";
+
+    @Mock
+    private ClusterClient clusterClient;
+
+    @Mock
+    private FxDealService fxDealService;
+
+    @Mock
+    private ParallelImportService parallelImportService;
+
+    private final ClusterMembership membership = new ClusterMembership("node-1", List.of(NODE_1, NODE_2));
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClusterImportService clusterImportService;
+
+    @BeforeEach
+    void setUp() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setForwardBatchSize(3);
+        properties.setSecret(SECRET);
+        clusterImportService = new ClusterImportService(membership, clusterClient, fxDealService,
+                parallelImportService, new FxDealRequestValidator(), properties, new ImportRequestProperties(),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clusterImportService.destroy();
+    }
+
+    @Test
+    void importDeals_ShouldImportOwnedDealsAndForwardTheRestInBatches() {
+        // Arrange
+        List<FxDealRequest> requests = createRequests(20);
+        int owned = (int) requests.stream().filter(r -> membership.ownsLocally(r.getDealUniqueId())).count();
+        List<List<String>> forwarded = new ArrayList<>();
+        when(fxDealService.importDeals(anyList())).thenAnswer(inv -> summary(inv.<List<?>>getArgument(0).size()));
+        when(clusterClient.forwardImport(eq(NODE_2), anyList(), eq(false))).thenAnswer(inv -> {
+            List<FxDealRequest> batch = inv.getArgument(1);
+            forwarded.add(batch.stream().map(FxDealRequest::getDealUniqueId).toList());
+            return summary(batch.size());
+        });
+
+        // Act
+        ImportSummaryResponse summary = clusterImportService.importDeals(requests, false);
+
+        // Assert
+        assertThat(owned).isBetween(1, 19);
+        assertThat(summary.getImported()).isEqualTo(20);
+        assertThat(forwarded).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        assertThat(forwarded.stream().flatMap(List::stream))
+                .hasSize(20 - owned)
+                .allSatisfy(id -> assertThat(membership.ownerOf(id)).isEqualTo(NODE_2));
+        assertThat(meterRegistry.get("fxdeals.cluster.forwarded").tag("outcome", "ok").counter().count())
+                .isEqualTo(20.0 - owned);
+    }
+
+    @Test
+    void importDeals_WhenOwnerUnreachable_ShouldSkipItsDeals() {
+        // Arrange
+        List<FxDealRequest> requests = createRequests(20);
+        int owned = (int) requests.stream().filter(r -> membership.ownsLocally(r.getDealUniqueId())).count();
+        when(fxDealService.importDeals(anyList())).thenAnswer(inv -> summary(inv.<List<?>>getArgument(0).size()));
+        when(clusterClient.forwardImport(eq(NODE_2), anyList(), eq(false)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // Act
+        ImportSummaryResponse summary = clusterImportService.importDeals(requests, false);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(owned);
+        assertThat(summary.getSkipped()).isEqualTo(20 - owned);
+        assertThat(summary.getErrors()).extracting(ImportSummaryResponse.ErrorDetail::getReason)
+                .containsOnly(ClusterImportService.OWNER_UNAVAILABLE_REASON);
+        verify(clusterClient).forwardImport(eq(NODE_2), anyList(), eq(false));
+    }
+
+    @Test
+    void importDeals_WhenForwardPoolFull_ShouldRejectWithoutImporting() throws Exception {
+        // Arrange
+        ClusterProperties properties = new ClusterProperties();
+        properties.setForwardQueueCapacity(0);
+        properties.setSecret(SECRET);
+        ImportRequestProperties importRequestProperties = new ImportRequestProperties();
+        importRequestProperties.setWorkers(1);
+        ClusterImportService service = new ClusterImportService(membership, clusterClient, fxDealService,
+                parallelImportService, new FxDealRequestValidator(), properties, importRequestProperties,
+                meterRegistry);
+        List<FxDealRequest> forwardedOnly = createRequests(20).stream()
+                .filter(r -> !membership.ownsLocally(r.getDealUniqueId()))
+                .toList();
+        CountDownLatch forwarding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(clusterClient.forwardImport(eq(NODE_2), anyList(), eq(false))).thenAnswer(inv -> {
+            forwarding.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return summary(inv.<List<?>>getArgument(1).size());
+        });
+        CompletableFuture<ImportSummaryResponse> first =
+                CompletableFuture.supplyAsync(() -> service.importDeals(forwardedOnly, false));
+        assertThat(forwarding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // Act & Assert
+            assertThatThrownBy(() -> service.importDeals(forwardedOnly, false))
+                    .isInstanceOf(ImportRejectedException.class);
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getImported()).isEqualTo(forwardedOnly.size());
+            verify(fxDealService, never()).importDeals(anyList());
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+
+    @Test
+    void importDeals_WhenLocalImportFails_ShouldCancelForwards() throws Exception {
+        // Arrange
+        List<FxDealRequest> requests = createRequests(20);
+        FxDealRequest duplicate = requests.stream()
+                .filter(r -> membership.ownsLocally(r.getDealUniqueId()))
+                .findFirst()
+                .orElseThrow();
+        CountDownLatch forwarding = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(clusterClient.forwardImport(eq(NODE_2), anyList(), eq(false))).thenAnswer(inv -> {
+            forwarding.countDown();
+            try {
+                new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return summary(inv.<List<?>>getArgument(1).size());
+        });
+        when(fxDealService.importDeals(anyList())).thenAnswer(inv -> {
+            assertThat(forwarding.await(5, TimeUnit.SECONDS)).isTrue();
+            throw new DuplicateDealException(duplicate.getDealUniqueId());
+        });
+
+        // Act & Assert
+        assertThatThrownBy(() -> clusterImportService.importDeals(requests, false))
+                .isInstanceOf(DuplicateDealException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(clusterClient).forwardImport(eq(NODE_2), anyList(), eq(false));
+    }
+
+    @Test
+    void isForwardedByPeer_ShouldRequireAnotherMemberAndTheSecret() {
+        // Act & Assert
+        assertThat(clusterImportService.isForwardedByPeer("node-2", SECRET)).isTrue();
+        assertThat(clusterImportService.isForwardedByPeer("node-2", "guessed")).isFalse();
+        assertThat(clusterImportService.isForwardedByPeer("node-2", null)).isFalse();
+        assertThat(clusterImportService.isForwardedByPeer("node-1", SECRET)).isFalse();
+        assertThat(clusterImportService.isForwardedByPeer("node-9", SECRET)).isFalse();
+    }
+
+    @Test
+    void constructor_WhenClusteredWithoutSecret_ShouldFail() {
+        // Act & Assert
+        assertThatThrownBy(() -> new ClusterImportService(membership, clusterClient, fxDealService,
+                parallelImportService, new FxDealRequestValidator(), new ClusterProperties(),
+                new ImportRequestProperties(), meterRegistry))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("fxdeals.cluster.secret");
+    }
+
+    @Test
+    void importLenient_ShouldRecordInvalidDealsAndRouteTheValidOnes() {
+        // Arrange
+        FxDealRequest invalid = createRequest("FX-BAD");
+        invalid.setDealAmount(null);
+        FxDealRequest valid = createRequests(20).stream()
+                .filter(r -> !membership.ownsLocally(r.getDealUniqueId()))
+                .findFirst()
+                .orElseThrow();
+        when(clusterClient.forwardImport(eq(NODE_2), eq(List.of(valid)), eq(false))).thenReturn(summary(1));
+
+        // Act
+        ImportSummaryResponse summary = clusterImportService.importLenient(List.of(invalid, valid));
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(1);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(summary.getErrors().get(0).getIndex()).isZero();
+        assertThat(summary.getErrors().get(0).getDetails()).containsExactly(FxDealRequestValidator.AMOUNT_REQUIRED);
+        verify(fxDealService, never()).importDeals(anyList());
+    }
+
+    private static ImportSummaryResponse summary(int imported) {
+        return ImportSummaryResponse.builder()
+                .imported(imported)
+                .skipped(0)
+                .build();
+    }
+
+    private static List<FxDealRequest> createRequests(int count) {
+        return IntStream.range(0, count).mapToObj(i -> createRequest("FX" + i)).toList();
+    }
+
+    private static FxDealRequest createRequest(String dealId) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 0))
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+}
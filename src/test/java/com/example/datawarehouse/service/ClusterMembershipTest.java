@@ -0,0 +1,96 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ClusterProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterMembershipTest {
+
+    private static final List<ClusterMembership.Node> NODES = List.of(
+            new ClusterMembership.Node("node-1", "http://localhost:8081"),
+            new ClusterMembership.Node("node-2", "http://localhost:8082"),
+            new ClusterMembership.Node("node-3", "http://localhost:8083"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ownerOf_ShouldSplitIdsEvenlyAcrossNodes() {
+        // Arrange
+        ClusterMembership membership = new ClusterMembership("node-1", NODES);
+
+        // Act
+        Map<String, Integer> owned = new HashMap<>();
+        IntStream.range(0, 30_000).forEach(i -> owned.merge(membership.ownerOf("FX" + i).id(), 1, Integer::sum));
+
+        // Assert
+        assertThat(owned).containsOnlyKeys("node-1", "node-2", "node-3");
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(9_000, 11_000));
+    }
+
+    @Test
+    void ownerOf_ShouldBeTheSameOnEveryNodeWhateverTheMemberOrder() {
+        // Arrange
+        ClusterMembership first = new ClusterMembership("node-1", NODES);
+        ClusterMembership third = new ClusterMembership("node-3", List.of(NODES.get(2), NODES.get(0), NODES.get(1)));
+
+        // Act & Assert
+        IntStream.range(0, 1_000).mapToObj(i -> "FX" + i).forEach(id -> {
+            assertThat(third.ownerOf(id).id()).isEqualTo(first.ownerOf(id).id());
+            assertThat(first.ownsLocally(id) || third.ownsLocally(id))
+                    .isEqualTo(!first.ownerOf(id).id().equals("node-2"));
+        });
+    }
+
+    @Test
+    void constructor_ShouldReadMembersFile() throws IOException {
+        // Arrange
+        Path file = directory.resolve("cluster.json");
+        Files.writeString(file, """
+                {"nodes": [
+                  {"id": "node-2", "url": "http://localhost:8082"},
+                  {"id": "node-1", "url": "http://localhost:8081"}
+                ]}
+                """);
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId("node-2");
+        properties.setMembersFile(file);
+
+        // Act
+        ClusterMembership membership = new ClusterMembership(properties, new ObjectMapper());
+
+        // Assert
+        assertThat(membership.isClustered()).isTrue();
+        assertThat(membership.self().url()).isEqualTo("http://localhost:8082");
+        assertThat(membership.nodes()).extracting(ClusterMembership.Node::id).containsExactly("node-1", "node-2");
+    }
+
+    @Test
+    void constructor_WhenDisabled_ShouldOwnEveryId() {
+        // Act
+        ClusterMembership membership = new ClusterMembership(new ClusterProperties(), new ObjectMapper());
+
+        // Assert
+        assertThat(membership.isClustered()).isFalse();
+        assertThat(membership.ownsLocally("FX001")).isTrue();
+    }
+
+    @Test
+    void constructor_WhenNodeNotListed_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> new ClusterMembership("node-9", NODES))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("node-9");
+    }
+}
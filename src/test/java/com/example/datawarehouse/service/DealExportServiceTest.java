@@ -0,0 +1,110 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ExportProperties;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DealExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 11, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 12, 1, 0, 0);
+
+    @Mock
+    private DealExportRepository repository;
+
+    private DealExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties properties = new ExportProperties();
+        properties.setPageSize(2);
+        exportService = new DealExportService(repository, properties);
+    }
+
+    @Test
+    void exportCsv_ShouldWriteEveryPageFromTheLastIdOfThePreviousOne() throws Exception {
+        // Arrange
+        givenPage(5L, List.of(createDeal(6L, "FX006"), createDeal(9L, "FX,\"9\"")));
+        givenPage(9L, List.of(createDeal(12L, "FX012")));
+        StringWriter out = new StringWriter();
+
+        // Act
+        long exported = exportService.exportCsv(FROM, TO, 5L, out);
+
+        // Assert
+        assertThat(exported).isEqualTo(3);
+        assertThat(out.toString().lines().toList()).containsExactly(
+                DealExportService.CSV_HEADER,
+                "6,FX006,USD,EUR,2024-11-27T10:30,1000.5000",
+                "9,\"FX,\"\"9\"\"\",USD,EUR,2024-11-27T10:30,1000.5000",
+                "12,FX012,USD,EUR,2024-11-27T10:30,1000.5000");
+        verify(repository).forEachInPage(eq(FROM), eq(TO), eq(9L), eq(2), any());
+    }
+
+    @Test
+    void exportCsv_WhenLastPageIsFull_ShouldStopOnEmptyPage() throws Exception {
+        // Arrange
+        givenPage(0L, List.of(createDeal(1L, "FX001"), createDeal(2L, "FX002")));
+        givenPage(2L, List.of());
+        StringWriter out = new StringWriter();
+
+        // Act
+        long exported = exportService.exportCsv(null, null, 0L, out);
+
+        // Assert
+        assertThat(exported).isEqualTo(2);
+        assertThat(out.toString().lines()).hasSize(3);
+    }
+
+    @Test
+    void checkRequest_WhenFormatUnsupported_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> exportService.checkRequest("parquet", null, null))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("parquet");
+    }
+
+    @Test
+    void checkRequest_WhenRangeEmpty_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> exportService.checkRequest("csv", TO, FROM))
+                .isInstanceOf(InvalidRequestParameterException.class);
+    }
+
+    private void givenPage(long afterId, List<FxDeal> deals) {
+        doAnswer(invocation -> {
+            Consumer<FxDeal> consumer = invocation.getArgument(4);
+            deals.forEach(consumer);
+            return null;
+        }).when(repository).forEachInPage(any(), any(), eq(afterId), eq(2), any());
+    }
+
+    private static FxDeal createDeal(long id, String dealUniqueId) {
+        return FxDeal.builder()
+                .id(id)
+                .dealUniqueId(dealUniqueId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 30))
+                .dealAmount(new BigDecimal("1000.5000"))
+                .build();
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.FeedProperties;
+import com.example.datawarehouse.config.FeedProperties.OverflowPolicy;
+import com.example.datawarehouse.mapper.FxDealMapperImpl;
+import com.example.datawarehouse.model.FxDeal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealFeedTest {
+
+    private final FeedProperties properties = new FeedProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Sender tasks run only when the test says so, to simulate a slow subscriber
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+
+    private DealFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        properties.setHistorySize(3);
+        properties.setBufferSize(2);
+    }
+
+    @Test
+    void publishAfterCommit_ShouldPushDealsToSubscribers() {
+        // Arrange
+        createFeed();
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(null, sink);
+
+        // Act
+        feed.publishAfterCommit(createDeals(1, 2));
+        runPendingTasks();
+
+        // Assert
+        assertThat(sink.dealIds()).containsExactly("FX1", "FX2");
+        assertThat(sink.cursors()).containsExactly("run1-1", "run1-2");
+    }
+
+    @Test
+    void subscribe_WithCursor_ShouldReplayMissedDealsFromHistory() {
+        // Arrange
+        createFeed();
+        feed.publishAfterCommit(createDeals(1, 3));
+        RecordingSink sink = new RecordingSink();
+
+        // Act
+        feed.subscribe("run1-1", sink);
+        runPendingTasks();
+        feed.publishAfterCommit(createDeals(4, 1));
+        runPendingTasks();
+
+        // Assert
+        assertThat(sink.dealIds()).containsExactly("FX2", "FX3", "FX4");
+    }
+
+    @Test
+    void subscribe_WithCursorNoLongerInHistory_ShouldSendReset() {
+        // Arrange
+        createFeed();
+        feed.publishAfterCommit(createDeals(1, 5));
+        RecordingSink evicted = new RecordingSink();
+        RecordingSink restarted = new RecordingSink();
+
+        // Act
+        feed.subscribe("run1-1", evicted);
+        feed.subscribe("run0-5", restarted);
+        runPendingTasks();
+
+        // Assert
+        assertThat(evicted.events).containsExactly(DealFeed.RESET);
+        assertThat(restarted.events).containsExactly(DealFeed.RESET);
+    }
+
+    @Test
+    void publishAfterCommit_WhenSubscriberBufferFull_ShouldDisconnectIt() {
+        // Arrange
+        createFeed();
+        RecordingSink slow = new RecordingSink();
+        feed.subscribe(null, slow);
+
+        // Act
+        feed.publishAfterCommit(createDeals(1, 3));
+        runPendingTasks();
+
+        // Assert
+        assertThat(slow.closed).isTrue();
+        assertThat(slow.events).isEmpty();
+        assertThat(meterRegistry.get("fxdeals.feed.subscribers").gauge().value()).isZero();
+        assertThat(meterRegistry.get("fxdeals.feed.overflows").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void publishAfterCommit_WhenDroppingOldest_ShouldKeepLatestDeals() {
+        // Arrange
+        properties.setOverflow(OverflowPolicy.DROP_OLDEST);
+        createFeed();
+        RecordingSink slow = new RecordingSink();
+        feed.subscribe(null, slow);
+
+        // Act
+        feed.publishAfterCommit(createDeals(1, 3));
+        runPendingTasks();
+
+        // Assert
+        assertThat(slow.closed).isFalse();
+        assertThat(slow.dealIds()).containsExactly("FX2", "FX3");
+    }
+
+    @Test
+    void sendHeartbeats_WhenSendBlockedPastTimeout_ShouldDisconnectSubscriber() {
+        // Arrange
+        properties.setSendTimeout(Duration.ZERO);
+        createFeed();
+        RecordingSink blocked = new RecordingSink() {
+            @Override
+            public void send(DealFeed.Event event) {
+                // The heartbeat runs while this send is still in progress
+                feed.sendHeartbeats();
+                super.send(event);
+            }
+        };
+        feed.subscribe(null, blocked);
+
+        // Act
+        feed.publishAfterCommit(createDeals(1, 2));
+        runPendingTasks();
+
+        // Assert
+        assertThat(blocked.closed).isTrue();
+        assertThat(blocked.dealIds()).containsExactly("FX1");
+        assertThat(meterRegistry.get("fxdeals.feed.subscribers").gauge().value()).isZero();
+        assertThat(meterRegistry.get("fxdeals.feed.stalls").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sendHeartbeats_WhenMoreStalledSubscribersThanSenderThreads_ShouldNotQueueCloses() throws Exception {
+        // Arrange
+        properties.setSendTimeout(Duration.ZERO);
+        ThreadPoolExecutor senders = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+        feed = new DealFeed(properties, new FxDealMapperImpl(), meterRegistry, senders, "run1");
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch writeTimeout = new CountDownLatch(1);
+        List<BlockingSink> sinks = IntStream.range(0, 3).mapToObj(i -> new BlockingSink(started, writeTimeout))
+                .toList();
+        sinks.forEach(sink -> feed.subscribe(null, sink));
+
+        try {
+            feed.publishAfterCommit(createDeals(1, 1));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act
+            feed.sendHeartbeats();
+
+            // Assert
+            List<BlockingSink> stalled = sinks.stream().filter(sink -> sink.sending).toList();
+            BlockingSink waiting = sinks.stream().filter(sink -> !sink.sending).findFirst().orElseThrow();
+            assertThat(stalled).hasSize(2);
+            assertThat(meterRegistry.get("fxdeals.feed.stalls").counter().count()).isEqualTo(2.0);
+            assertThat(meterRegistry.get("fxdeals.feed.subscribers").gauge().value()).isEqualTo(1.0);
+            // Only the waiting subscriber's send is queued, no close sits behind the blocked writes
+            assertThat(senders.getQueue()).hasSize(1);
+
+            writeTimeout.countDown();
+            for (BlockingSink sink : stalled) {
+                assertThat(sink.closed.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            assertThat(waiting.received.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(waiting.closed.getCount()).isEqualTo(1);
+        } finally {
+            writeTimeout.countDown();
+            senders.shutdownNow();
+        }
+    }
+
+    private void createFeed() {
+        feed = new DealFeed(properties, new FxDealMapperImpl(), meterRegistry, pendingTasks::add, "run1");
+    }
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.remove(0).run();
+        }
+    }
+
+    private static List<FxDeal> createDeals(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> FxDeal.builder()
+                        .id((long) i)
+                        .dealUniqueId("FX" + i)
+                        .fromCurrencyIsoCode("USD")
+                        .toCurrencyIsoCode("EUR")
+                        .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 30))
+                        .dealAmount(new BigDecimal("1000.00"))
+                        .build())
+                .toList();
+    }
+
+    private static class BlockingSink implements DealFeed.Sink {
+
+        private final CountDownLatch started;
+        private final CountDownLatch writeTimeout;
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile boolean sending;
+
+        BlockingSink(CountDownLatch started, CountDownLatch writeTimeout) {
+            this.started = started;
+            this.writeTimeout = writeTimeout;
+        }
+
+        @Override
+        public void send(DealFeed.Event event) throws IOException {
+            sending = true;
+            started.countDown();
+            try {
+                writeTimeout.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+            received.countDown();
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    private class RecordingSink implements DealFeed.Sink {
+
+        private final List<DealFeed.Event> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void send(DealFeed.Event event) {
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> dealIds() {
+            return events.stream().map(event -> event.deal().getDealUniqueId()).toList();
+        }
+
+        List<String> cursors() {
+            return events.stream().map(feed::cursorOf).toList();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.LookupCacheProperties;
+import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.FxDealRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealLookupCacheTest {
+
+    @Mock
+    private FxDealRepository repository;
+
+    @Mock
+    private FxDealMapper mapper;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DealLookupCache lookupCache;
+
+    @BeforeEach
+    void setUp() {
+        lookupCache = new DealLookupCache(repository, mapper, new LookupCacheProperties(), meterRegistry);
+        lenient().when(mapper.toResponse(any(FxDeal.class))).thenAnswer(inv -> FxDealResponse.builder()
+                .dealUniqueId(inv.<FxDeal>getArgument(0).getDealUniqueId())
+                .build());
+    }
+
+    @Test
+    void find_ShouldQueryTheDatabaseOnlyOnFirstLookup() {
+        // Arrange
+        when(repository.findByDealUniqueId("FX001")).thenReturn(Optional.of(createDeal("FX001")));
+
+        // Act
+        Optional<FxDealResponse> first = lookupCache.find("FX001");
+        Optional<FxDealResponse> second = lookupCache.find("FX001");
+
+        // Assert
+        assertThat(first).isPresent();
+        assertThat(second).isEqualTo(first);
+        verify(repository, times(1)).findByDealUniqueId("FX001");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", DealLookupCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void find_WhenMissCachedAndDealImported_ShouldReturnImportedDeal() {
+        // Arrange
+        when(repository.findByDealUniqueId("FX001")).thenReturn(Optional.empty());
+        assertThat(lookupCache.find("FX001")).isEmpty();
+        assertThat(lookupCache.find("FX001")).isEmpty();
+
+        // Act
+        lookupCache.putImported(List.of(createDeal("FX001")));
+
+        // Assert
+        assertThat(lookupCache.find("FX001")).hasValueSatisfying(
+                deal -> assertThat(deal.getDealUniqueId()).isEqualTo("FX001"));
+        verify(repository, times(1)).findByDealUniqueId("FX001");
+    }
+
+    @Test
+    void invalidateImported_ShouldDropCachedMiss() {
+        // Arrange
+        when(repository.findByDealUniqueId("FX001"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(createDeal("FX001")));
+        lookupCache.find("FX001");
+
+        // Act
+        lookupCache.invalidateImported(List.of("FX001"));
+
+        // Assert
+        assertThat(lookupCache.find("FX001")).isPresent();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAll_ShouldLoadOnlyUncachedIdsInOneQuery() {
+        // Arrange
+        lookupCache.putImported(List.of(createDeal("FX001")));
+        when(repository.findByDealUniqueIdIn(anyCollection())).thenReturn(List.of(createDeal("FX002")));
+
+        // Act
+        Map<String, FxDealResponse> found = lookupCache.findAll(List.of("FX001", "FX002", "FX404"));
+        Map<String, FxDealResponse> again = lookupCache.findAll(List.of("FX001", "FX002", "FX404"));
+
+        // Assert
+        assertThat(found).containsOnlyKeys("FX001", "FX002");
+        assertThat(again).containsOnlyKeys("FX001", "FX002");
+        ArgumentCaptor<Collection<String>> queried = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(1)).findByDealUniqueIdIn(queried.capture());
+        assertThat(queried.getValue()).containsExactlyInAnyOrder("FX002", "FX404");
+        verify(repository, never()).findByDealUniqueId(any());
+    }
+
+    private FxDeal createDeal(String dealUniqueId) {
+        return FxDeal.builder()
+                .id(1L)
+                .dealUniqueId(dealUniqueId)
+                .build();
+    }
+}
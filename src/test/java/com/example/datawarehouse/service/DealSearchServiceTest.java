@@ -0,0 +1,115 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.request.DealSearchRequest;
+import com.example.datawarehouse.dto.response.DealSearchResponse;
+import com.example.datawarehouse.dto.response.FxDealResponse;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealSearchRepository;
+import com.example.datawarehouse.repository.DealSearchRepository.Position;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealSearchServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 11, 27, 10, 30);
+
+    @Mock
+    private DealSearchRepository searchRepository;
+
+    @Mock
+    private FxDealMapper mapper;
+
+    @InjectMocks
+    private DealSearchService searchService;
+
+    @Test
+    void search_WhenMoreRowsThanPage_ShouldReturnCursorOfLastDeal() {
+        // Arrange
+        DealSearchRequest normalized = DealSearchRequest.builder().fromCurrency("USD").toCurrency("EUR").build();
+        when(searchRepository.search(normalized, null, 3))
+                .thenReturn(List.of(createDeal(1L, T0), createDeal(2L, T0), createDeal(3L, T0.plusHours(1))));
+        when(mapper.toResponse(any(FxDeal.class))).thenReturn(new FxDealResponse());
+
+        // Act
+        DealSearchResponse page = searchService.search(
+                DealSearchRequest.builder().fromCurrency("usd").toCurrency("eur").build(), null, 2);
+
+        // Assert
+        assertThat(page.getDeals()).hasSize(2);
+        assertThat(DealSearchService.decodeCursor(page.getNextCursor())).isEqualTo(new Position(T0, 2L));
+    }
+
+    @Test
+    void search_WhenLastPage_ShouldReturnNoCursor() {
+        // Arrange
+        String cursor = DealSearchService.encodeCursor(new Position(T0, 2L));
+        when(searchRepository.search(any(DealSearchRequest.class), eq(new Position(T0, 2L)), eq(101)))
+                .thenReturn(List.of(createDeal(3L, T0.plusHours(1))));
+        when(mapper.toResponse(any(FxDeal.class))).thenReturn(new FxDealResponse());
+
+        // Act
+        DealSearchResponse page = searchService.search(new DealSearchRequest(), cursor, 100);
+
+        // Assert
+        assertThat(page.getDeals()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void search_WhenAmountBandInverted_ShouldThrow() {
+        // Arrange
+        DealSearchRequest criteria = DealSearchRequest.builder()
+                .minAmount(new BigDecimal("10"))
+                .maxAmount(new BigDecimal("1"))
+                .build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.search(criteria, null, 100))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("minAmount");
+        verifyNoInteractions(searchRepository);
+    }
+
+    @Test
+    void search_WhenCursorMalformed_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.search(new DealSearchRequest(), "not-a-cursor", 100))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("cursor");
+    }
+
+    @Test
+    void search_WhenCurrencyInvalid_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.search(
+                DealSearchRequest.builder().fromCurrency("US1").build(), null, 100))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("fromCurrency");
+    }
+
+    private FxDeal createDeal(long id, LocalDateTime timestamp) {
+        return FxDeal.builder()
+                .id(id)
+                .dealUniqueId("FX" + id)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(timestamp)
+                .dealAmount(BigDecimal.TEN)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.response.PairStatsResponse;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.model.StatsBucket;
+import com.example.datawarehouse.repository.DealRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealStatsServiceTest {
+
+    @Mock
+    private DealRollupRepository rollupRepository;
+
+    @InjectMocks
+    private DealStatsService statsService;
+
+    @Test
+    void getPairStats_ShouldQueryRollupsForPairAndBucket() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2024, 11, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 1, 0, 0);
+        List<PairStatsResponse.Bucket> buckets = List.of(PairStatsResponse.Bucket.builder().dealCount(2).build());
+        when(rollupRepository.findTotals("USD", "EUR", StatsBucket.DAY, from, to)).thenReturn(buckets);
+
+        // Act
+        PairStatsResponse stats = statsService.getPairStats("usd/eur", "1d", from, to);
+
+        // Assert
+        assertThat(stats.getPair()).isEqualTo("USD/EUR");
+        assertThat(stats.getBucket()).isEqualTo("1d");
+        assertThat(stats.getBuckets()).isEqualTo(buckets);
+    }
+
+    @Test
+    void getPairStats_WhenBucketUnknown_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> statsService.getPairStats("USD/EUR", "1w", null, null))
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessageContaining("bucket");
+    }
+
+    @Test
+    void getPairStats_WhenRangeEmpty_ShouldThrow() {
+        // Arrange
+        LocalDateTime instant = LocalDateTime.of(2024, 11, 1, 0, 0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> statsService.getPairStats("USD/EUR", "1h", instant, instant))
+                .isInstanceOf(InvalidRequestParameterException.class);
+    }
+}
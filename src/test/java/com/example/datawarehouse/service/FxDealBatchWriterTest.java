@@ -0,0 +1,125 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealRollupRepository;
+import com.example.datawarehouse.repository.FxDealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FxDealBatchWriterTest {
+
+    @Mock
+    private FxDealRepository repository;
+
+    @Mock
+    private FxDealMapper mapper;
+
+    @Mock
+    private DealIdFilter dealIdFilter;
+
+    @Mock
+    private DealRollupRepository rollupRepository;
+
+    @Mock
+    private DealLookupCache lookupCache;
+
+    @Mock
+    private DealFeed dealFeed;
+
+    @Spy
+    private ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private FxDealBatchWriter batchWriter;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeChunk_ShouldInsertOnlyDealsNotAlreadyStored() {
+        // Arrange
+        FxDealRequest request1 = createRequest("FX001");
+        FxDealRequest request2 = createRequest("FX002");
+
+        when(dealIdFilter.mightContain(anyString())).thenReturn(true);
+        when(repository.findExistingDealUniqueIds(List.of("FX001", "FX002"))).thenReturn(List.of("FX002"));
+        when(mapper.toEntity(any(FxDealRequest.class)))
+                .thenAnswer(inv -> FxDeal.builder()
+                        .dealUniqueId(inv.<FxDealRequest>getArgument(0).getDealUniqueId())
+                        .build());
+
+        // Act
+        Set<String> duplicates = batchWriter.writeChunk(List.of(request1, request2));
+
+        // Assert
+        assertThat(duplicates).containsExactly("FX002");
+        ArgumentCaptor<List<FxDeal>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(FxDeal::getDealUniqueId).containsExactly("FX001");
+        verify(repository).flush();
+        verify(rollupRepository).addDeals(saved.getValue());
+        verify(dealIdFilter).recordLookup(2, 1);
+        verify(dealIdFilter).put("FX001");
+        verify(dealFeed).publishAfterCommit(saved.getValue());
+    }
+
+    @Test
+    void writeChunk_WhenFilterReportsAllIdsNew_ShouldSkipExistenceQuery() {
+        // Arrange
+        when(dealIdFilter.mightContain(anyString())).thenReturn(false);
+        when(mapper.toEntity(any(FxDealRequest.class))).thenReturn(new FxDeal());
+
+        // Act
+        Set<String> duplicates = batchWriter.writeChunk(List.of(createRequest("FX001"), createRequest("FX002")));
+
+        // Assert
+        assertThat(duplicates).isEmpty();
+        verify(repository, never()).findExistingDealUniqueIds(anyCollection());
+        verify(repository).saveAll(anyList());
+    }
+
+    @Test
+    void writeDeals_ShouldInsertDecodedEntitiesWithFreshIds() {
+        // Arrange
+        FxDeal retried = FxDeal.builder().id(42L).dealUniqueId("FX001").build();
+        when(dealIdFilter.mightContain("FX001")).thenReturn(false);
+
+        // Act
+        Set<String> duplicates = batchWriter.writeDeals(List.of(retried));
+
+        // Assert
+        assertThat(duplicates).isEmpty();
+        assertThat(retried.getId()).isNull();
+        verify(repository).saveAll(List.of(retried));
+        verify(mapper, never()).toEntity(any(FxDealRequest.class));
+    }
+
+    private FxDealRequest createRequest(String dealId) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.now())
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+}
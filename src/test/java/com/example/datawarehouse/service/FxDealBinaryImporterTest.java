@@ -0,0 +1,103 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.util.FxDealBinaryFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FxDealBinaryImporterTest {
+
+    @Mock
+    private FxDealService service;
+
+    @Spy
+    private ImportProperties importProperties = new ImportProperties();
+
+    @Spy
+    private ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private FxDealBinaryImporter importer;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importBinary_ShouldWriteDecodedDealsInChunks() throws IOException {
+        // Arrange
+        importProperties.setBatchSize(2);
+        List<List<FxDeal>> chunks = new ArrayList<>();
+        when(service.importEntityChunk(anyList())).thenAnswer(inv -> {
+            List<FxDeal> chunk = inv.getArgument(0);
+            chunks.add(List.copyOf(chunk));
+            return chunk.stream()
+                    .map(deal -> deal.getDealUniqueId().equals("FX002") ? FxDealService.DUPLICATE_REASON : null)
+                    .toList();
+        });
+
+        // Act
+        ImportSummaryResponse summary = importer.importBinary(payload("FX001", "FX002", "FX003"));
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(summary.getErrors()).extracting(ImportSummaryResponse.ErrorDetail::getDealUniqueId)
+                .containsExactly("FX002");
+        verify(service, times(2)).importEntityChunk(anyList());
+        assertThat(chunks).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    void importBinary_WhenImportFails_ShouldDeleteSpilledErrors() throws IOException {
+        // Arrange
+        importProperties.setBatchSize(1);
+        importProperties.setMaxErrorsInMemory(0);
+        when(service.importEntityChunk(anyList()))
+                .thenReturn(List.of(FxDealService.DUPLICATE_REASON))
+                .thenThrow(new IllegalStateException("database gone"));
+        long spillFilesBefore = countSpillFiles();
+
+        // Act & Assert
+        assertThatThrownBy(() -> importer.importBinary(payload("FX001", "FX002")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(countSpillFiles()).isEqualTo(spillFilesBefore);
+    }
+
+    private static long countSpillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("fxdeals-import-errors-")).count();
+        }
+    }
+
+    private ByteArrayInputStream payload(String... dealIds) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FxDealBinaryFormat.Writer writer = new FxDealBinaryFormat.Writer(out)) {
+            for (String dealId : dealIds) {
+                writer.write(dealId, "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000.00"));
+            }
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.repository.FxDealRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class FxDealCopyLoaderIntegrationTest {
+
+    private static final int COPY_CHUNK_SIZE = 100;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("fxdeals.import.copy-chunk-size", () -> COPY_CHUNK_SIZE);
+    }
+
+    @Autowired
+    private FxDealCopyLoader copyLoader;
+
+    @Autowired
+    private FxDealService service;
+
+    @Autowired
+    private FxDealRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void load_ShouldInsertNewDealsAndReportDuplicates() {
+        // Arrange
+        service.importDeals(List.of(createRequest("COPY-EXISTING", "GBP", "1.00")));
+        List<FxDealRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            requests.add(createRequest("COPY-" + i, "GBP", "10.00"));
+        }
+        requests.add(createRequest("COPY-EXISTING", "GBP", "2.00"));
+        requests.add(createRequest("COPY-7", "GBP", "3.00"));
+
+        // Act
+        ImportSummaryResponse summary = copyLoader.load(requests.iterator());
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(250);
+        assertThat(summary.getSkipped()).isEqualTo(2);
+        assertThat(summary.getErrors())
+                .extracting(ImportSummaryResponse.ErrorDetail::getDealUniqueId)
+                .containsExactly("COPY-EXISTING", "COPY-7");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fx_deals WHERE deal_unique_id LIKE 'COPY-%'", Long.class)).isEqualTo(251);
+        assertThat(repository.findByDealUniqueId("COPY-7"))
+                .hasValueSatisfying(deal -> assertThat(deal.getDealAmount()).isEqualByComparingTo("10.00"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fx_deal_keys WHERE deal_unique_id LIKE 'COPY-%'", Long.class)).isEqualTo(251);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(deal_count) FROM fx_deal_rollups WHERE from_currency_iso_code = 'GBP'", Long.class))
+                .isEqualTo(251);
+    }
+
+    @Test
+    void load_ShouldNotReuseIdsAllocatedByTheJpaPath() {
+        // Arrange
+        service.importDeals(List.of(createRequest("MIXED-JPA-1", "USD", "1.00")));
+
+        // Act
+        copyLoader.load(List.of(createRequest("MIXED-COPY", "USD", "1.00")).iterator());
+        ImportSummaryResponse summary = service.importDeals(List.of(createRequest("MIXED-JPA-2", "USD", "1.00")));
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM fx_deals WHERE deal_unique_id LIKE 'MIXED-%'", Long.class))
+                .isEqualTo(3);
+    }
+
+    private FxDealRequest createRequest(String dealId, String fromCurrency, String amount) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode(fromCurrency)
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.now())
+                .dealAmount(new BigDecimal(amount))
+                .build();
+    }
+}
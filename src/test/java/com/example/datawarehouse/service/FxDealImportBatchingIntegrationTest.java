@@ -0,0 +1,141 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.repository.FxDealRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class FxDealImportBatchingIntegrationTest {
+
+    private static final int DEALS = 1_000;
+    private static final int BATCH_SIZE = 100;
+
+    private static final AtomicInteger INSERT_EXECUTIONS = new AtomicInteger();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("fxdeals.import.batch-size", () -> BATCH_SIZE);
+        // Chunks must stay at the JDBC batch size for the count below to hold
+        registry.add("fxdeals.admission.adaptive-batch-size", () -> false);
+    }
+
+    @Autowired
+    private FxDealService service;
+
+    @Autowired
+    private FxDealRepository repository;
+
+    @Test
+    void importDeals_ShouldSendOneInsertStatementPerBatch() {
+        // Arrange
+        List<FxDealRequest> requests = IntStream.range(0, DEALS)
+                .mapToObj(i -> createRequest("FX" + i))
+                .toList();
+        INSERT_EXECUTIONS.set(0);
+
+        // Act
+        ImportSummaryResponse summary = service.importDeals(requests);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(DEALS);
+        assertThat(repository.count()).isEqualTo(DEALS);
+        assertThat(INSERT_EXECUTIONS.get()).isEqualTo(DEALS / BATCH_SIZE);
+    }
+
+    private FxDealRequest createRequest(String dealId) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.now())
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+
+    /**
+     * Wraps the pool's connections so every execution of an insert into fx_deals is
+     * counted, whether it is sent as a single statement or as a JDBC batch.
+     */
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor insertCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? countingProxy(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource countingProxy(DataSource target) {
+            return proxy(DataSource.class, target, (method, result, args) ->
+                    result instanceof Connection connection ? countingProxy(connection) : result);
+        }
+
+        private static Connection countingProxy(Connection target) {
+            return proxy(Connection.class, target, (method, result, args) -> {
+                if (result instanceof PreparedStatement statement
+                        && method.getName().equals("prepareStatement")
+                        && ((String) args[0]).toLowerCase(Locale.ROOT).startsWith("insert into fx_deals")) {
+                    return proxy(PreparedStatement.class, statement, (m, r, a) -> {
+                        if (m.getName().startsWith("execute")) {
+                            INSERT_EXECUTIONS.incrementAndGet();
+                        }
+                        return r;
+                    });
+                }
+                return result;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+            ClassLoader classLoader = StatementCountingConfig.class.getClassLoader();
+            Object proxy = Proxy.newProxyInstance(classLoader, new Class<?>[]{type}, (p, method, args) -> {
+                try {
+                    return handler.handle(method, method.invoke(target, args), args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+            return type.cast(proxy);
+        }
+
+        @FunctionalInterface
+        private interface ResultHandler {
+            Object handle(Method method, Object result, Object[] args);
+        }
+    }
+}
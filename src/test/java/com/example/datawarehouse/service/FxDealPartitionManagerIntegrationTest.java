@@ -0,0 +1,109 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.PartitionProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class FxDealPartitionManagerIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private FxDealService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void afterPropertiesSet_ShouldMoveDefaultRowsIntoNewPartitionAndDetachExpiredOnes() {
+        // Arrange
+        YearMonth old = YearMonth.now().minusMonths(14);
+        String partition = FxDealPartitionManager.partitionName(old);
+        service.importDeals(List.of(createRequest("PART-OLD", old)));
+        assertThat(tableOf("PART-OLD")).isEqualTo(FxDealPartitionManager.DEFAULT_PARTITION);
+
+        PartitionProperties properties = new PartitionProperties();
+        properties.setBackfillMonths(14);
+
+        // Act
+        createManager(properties).afterPropertiesSet();
+
+        // Assert
+        assertThat(tableOf("PART-OLD")).isEqualTo(partition);
+        assertThat(countIn(FxDealPartitionManager.DEFAULT_PARTITION, "PART-OLD")).isZero();
+        assertThat(attachedPartitions()).contains(partition, FxDealPartitionManager.partitionName(old.plusMonths(1)));
+
+        // Act
+        properties.setRetentionMonths(13);
+        createManager(properties).afterPropertiesSet();
+
+        // Assert
+        assertThat(attachedPartitions())
+                .doesNotContain(partition)
+                .contains(FxDealPartitionManager.partitionName(old.plusMonths(1)));
+        assertThat(countIn(partition, "PART-OLD")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fx_deals WHERE deal_unique_id = 'PART-OLD'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fx_deal_keys WHERE deal_unique_id = 'PART-OLD'", Long.class)).isEqualTo(1);
+    }
+
+    private FxDealPartitionManager createManager(PartitionProperties properties) {
+        return new FxDealPartitionManager(jdbcTemplate, transactionTemplate, properties);
+    }
+
+    private String tableOf(String dealUniqueId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM fx_deals WHERE deal_unique_id = ?", String.class, dealUniqueId);
+    }
+
+    private long countIn(String table, String dealUniqueId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE deal_unique_id = ?", Long.class, dealUniqueId);
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'fx_deals'::regclass
+                """, String.class);
+    }
+
+    private static FxDealRequest createRequest(String dealId, YearMonth month) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(month.atDay(15).atTime(12, 0))
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.datawarehouse.service;
+
+import org.junit.jupiter.api.Test;
+import java.time.YearMonth;
+import java.util.Set;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FxDealPartitionManagerTest {
+
+    @Test
+    void partitionName_ShouldRoundTripThroughPartitionMonth() {
+        // Act
+        String name = FxDealPartitionManager.partitionName(YearMonth.of(2024, 3));
+
+        // Assert
+        assertThat(name).isEqualTo("fx_deals_p202403");
+        assertThat(FxDealPartitionManager.partitionMonth(name)).contains(YearMonth.of(2024, 3));
+    }
+
+    @Test
+    void expiredPartitions_ShouldOnlyReturnMonthlyPartitionsBeforeCutoff() {
+        // Arrange
+        Set<String> partitions = Set.of(
+                "fx_deals_default", "fx_deals_p202312", "fx_deals_p202401", "fx_deals_p202402", "fx_deals_archive");
+
+        // Act & Assert
+        assertThat(FxDealPartitionManager.expiredPartitions(partitions, YearMonth.of(2024, 2)))
+                .containsExactly("fx_deals_p202312", "fx_deals_p202401");
+    }
+}
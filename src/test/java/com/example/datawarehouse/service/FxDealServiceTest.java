@@ -1,28 +1,49 @@
 package com.example.datawarehouse.service;
 
+import com.example.datawarehouse.config.ImportProperties;
 import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.DealLookupResponse;
+import com.example.datawarehouse.dto.response.DealPageResponse;
 import com.example.datawarehouse.dto.response.FxDealResponse;
 import com.example.datawarehouse.dto.response.ImportSummaryResponse;
 import com.example.datawarehouse.exception.DuplicateDealException;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
 import com.example.datawarehouse.model.FxDeal;
+import com.example.datawarehouse.repository.DealRollupRepository;
 import com.example.datawarehouse.repository.FxDealRepository;
 import com.example.datawarehouse.mapper.FxDealMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +55,33 @@ class FxDealServiceTest {
     @Mock
     private FxDealMapper mapper;
 
+    @Mock
+    private FxDealBatchWriter batchWriter;
+
+    @Mock
+    private DealIdFilter dealIdFilter;
+
+    @Mock
+    private DealRollupRepository rollupRepository;
+
+    @Mock
+    private DealLookupCache lookupCache;
+
+    @Mock
+    private DealFeed dealFeed;
+
+    @Mock
+    private ImportAdmission admission;
+
+    @Spy
+    private ImportProperties importProperties = new ImportProperties();
+
+    @Spy
+    private ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private FxDealService service;
 
@@ -42,6 +90,8 @@ class FxDealServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(admission.batchSize()).thenReturn(500);
+
         validRequest = FxDealRequest.builder()
                 .dealUniqueId("FX001")
                 .fromCurrencyIsoCode("USD")
@@ -63,6 +113,7 @@ class FxDealServiceTest {
     @Test
     void saveDeal_WhenValidDeal_ShouldSaveSuccessfully() {
         // Arrange
+        when(dealIdFilter.mightContain(anyString())).thenReturn(true);
         when(repository.existsByDealUniqueId(anyString())).thenReturn(false);
         when(mapper.toEntity(any(FxDealRequest.class))).thenReturn(validDeal);
         when(repository.save(any(FxDeal.class))).thenReturn(validDeal);
@@ -75,11 +126,13 @@ class FxDealServiceTest {
         assertThat(response).isNotNull();
         verify(repository).existsByDealUniqueId("FX001");
         verify(repository).save(any(FxDeal.class));
+        verify(rollupRepository).addDeals(List.of(validDeal));
     }
 
     @Test
     void saveDeal_WhenDuplicateDeal_ShouldThrowException() {
         // Arrange
+        when(dealIdFilter.mightContain(anyString())).thenReturn(true);
         when(repository.existsByDealUniqueId(anyString())).thenReturn(true);
 
         // Act & Assert
@@ -90,6 +143,22 @@ class FxDealServiceTest {
         verify(repository, never()).save(any(FxDeal.class));
     }
 
+    @Test
+    void saveDeal_WhenFilterReportsNewId_ShouldSkipExistenceQuery() {
+        // Arrange
+        when(dealIdFilter.mightContain("FX001")).thenReturn(false);
+        when(mapper.toEntity(any(FxDealRequest.class))).thenReturn(validDeal);
+        when(repository.save(any(FxDeal.class))).thenReturn(validDeal);
+        when(mapper.toResponse(any(FxDeal.class))).thenReturn(new FxDealResponse());
+
+        // Act
+        service.saveDeal(validRequest);
+
+        // Assert
+        verify(repository, never()).existsByDealUniqueId(anyString());
+        verify(dealIdFilter).put("FX001");
+    }
+
     @Test
     void importDeals_WhenAllValid_ShouldImportAll() {
         // Arrange
@@ -97,10 +166,7 @@ class FxDealServiceTest {
         FxDealRequest request2 = createRequest("FX002");
         List<FxDealRequest> requests = Arrays.asList(request1, request2);
 
-        when(repository.existsByDealUniqueId(anyString())).thenReturn(false);
-        when(mapper.toEntity(any(FxDealRequest.class))).thenReturn(validDeal);
-        when(repository.save(any(FxDeal.class))).thenReturn(validDeal);
-        when(mapper.toResponse(any(FxDeal.class))).thenReturn(new FxDealResponse());
+        when(batchWriter.writeChunk(anyList())).thenReturn(Set.of());
 
         // Act
         ImportSummaryResponse summary = service.importDeals(requests);
@@ -109,6 +175,7 @@ class FxDealServiceTest {
         assertThat(summary.getImported()).isEqualTo(2);
         assertThat(summary.getSkipped()).isEqualTo(0);
         assertThat(summary.getErrors()).isEmpty();
+        verify(repository, never()).existsByDealUniqueId(anyString());
     }
 
     @Test
@@ -118,11 +185,7 @@ class FxDealServiceTest {
         FxDealRequest request2 = createRequest("FX002");
         List<FxDealRequest> requests = Arrays.asList(request1, request2);
 
-        when(repository.existsByDealUniqueId("FX001")).thenReturn(false);
-        when(repository.existsByDealUniqueId("FX002")).thenReturn(true);
-        when(mapper.toEntity(any(FxDealRequest.class))).thenReturn(validDeal);
-        when(repository.save(any(FxDeal.class))).thenReturn(validDeal);
-        when(mapper.toResponse(any(FxDeal.class))).thenReturn(new FxDealResponse());
+        when(batchWriter.writeChunk(anyList())).thenReturn(Set.of("FX002"));
 
         // Act
         ImportSummaryResponse summary = service.importDeals(requests);
@@ -136,18 +199,173 @@ class FxDealServiceTest {
     }
 
     @Test
-    void getAllDeals_ShouldReturnAllDeals() {
+    void importDeals_WhenSameIdRepeatedInRequest_ShouldImportFirstAndSkipOthers() {
+        // Arrange
+        List<FxDealRequest> requests = Arrays.asList(
+                createRequest("FX001"), createRequest("FX002"), createRequest("FX001"));
+
+        when(batchWriter.writeChunk(anyList())).thenReturn(Set.of());
+
+        // Act
+        ImportSummaryResponse summary = service.importDeals(requests);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(summary.getErrors().get(0).getDealUniqueId()).isEqualTo("FX001");
+        verify(batchWriter).writeChunk(List.of(requests.get(0), requests.get(1)));
+    }
+
+    @Test
+    void importDeals_ShouldWriteOneChunkPerBatchSize() {
         // Arrange
-        List<FxDeal> deals = Arrays.asList(validDeal, validDeal);
-        when(repository.findAll()).thenReturn(deals);
+        when(admission.batchSize()).thenReturn(2);
+        List<FxDealRequest> requests = Arrays.asList(
+                createRequest("FX001"), createRequest("FX002"), createRequest("FX003"));
+
+        when(batchWriter.writeChunk(anyList())).thenReturn(Set.of());
+
+        // Act
+        ImportSummaryResponse summary = service.importDeals(requests);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(3);
+        verify(batchWriter).writeChunk(requests.subList(0, 2));
+        verify(batchWriter).writeChunk(requests.subList(2, 3));
+        verify(admission).recordChunk(eq(2), anyLong());
+        verify(admission, never()).recordChunk(eq(1), anyLong());
+    }
+
+    @Test
+    void importDeals_WhenChunkConflicts_ShouldRetryDealByDeal() {
+        // Arrange
+        FxDealRequest request1 = createRequest("FX001");
+        FxDealRequest request2 = createRequest("FX002");
+        List<FxDealRequest> requests = Arrays.asList(request1, request2);
+
+        when(batchWriter.writeChunk(requests)).thenThrow(new DataIntegrityViolationException("unique"));
+        when(batchWriter.writeChunk(List.of(request1))).thenReturn(Set.of());
+        when(batchWriter.writeChunk(List.of(request2))).thenThrow(new DataIntegrityViolationException("unique"));
+
+        // Act
+        ImportSummaryResponse summary = service.importDeals(requests);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(1);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(summary.getErrors().get(0).getDealUniqueId()).isEqualTo("FX002");
+        assertThat(summary.getErrors().get(0).getReason()).isEqualTo("Duplicate entry");
+        verify(batchWriter, times(3)).writeChunk(anyList());
+        verify(admission, never()).recordChunk(anyInt(), anyLong());
+    }
+
+    @Test
+    void importDeals_FromIterator_ShouldWriteBoundedChunks() {
+        // Arrange
+        when(admission.batchSize()).thenReturn(2);
+        List<FxDealRequest> requests = Arrays.asList(
+                createRequest("FX001"), createRequest("FX002"), createRequest("FX003"));
+
+        when(batchWriter.writeChunk(anyList())).thenReturn(Set.of("FX003"));
+
+        // Act
+        ImportSummaryResponse summary = service.importDeals(requests.iterator());
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        verify(batchWriter).writeChunk(requests.subList(0, 2));
+        verify(batchWriter).writeChunk(requests.subList(2, 3));
+        verify(admission).recordChunk(eq(2), anyLong());
+        verify(admission, never()).recordChunk(eq(1), anyLong());
+    }
+
+    @Test
+    void importChunk_ShouldNotFeedAdmissionTuning() {
+        // Arrange
+        List<FxDealRequest> chunk = Arrays.asList(createRequest("FX001"), createRequest("FX002"));
+        when(batchWriter.writeChunk(chunk)).thenReturn(Set.of());
+
+        // Act
+        List<String> reasons = service.importChunk(chunk);
+
+        // Assert
+        assertThat(reasons).containsOnlyNulls();
+        verify(admission, never()).recordChunk(anyInt(), anyLong());
+    }
+
+    @Test
+    void getDealsPage_WhenPageFull_ShouldReturnNextCursor() {
+        // Arrange
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(validDeal, validDeal));
+        when(mapper.toResponse(any(FxDeal.class))).thenReturn(FxDealResponse.builder().id(7L).build());
+
+        // Act
+        DealPageResponse page = service.getDealsPage(0L, 2);
+
+        // Assert
+        assertThat(page.getDeals()).hasSize(2);
+        assertThat(page.getNextAfterId()).isEqualTo(7L);
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void getDealsPage_WhenLastPage_ShouldReturnNoCursor() {
+        // Arrange
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(7L), any(Pageable.class)))
+                .thenReturn(List.of(validDeal));
+        when(mapper.toResponse(any(FxDeal.class))).thenReturn(FxDealResponse.builder().id(8L).build());
+
+        // Act
+        DealPageResponse page = service.getDealsPage(7L, 2);
+
+        // Assert
+        assertThat(page.getDeals()).hasSize(1);
+        assertThat(page.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void streamAllDeals_ShouldMapAndDetachEveryDeal() {
+        // Arrange
+        when(repository.streamAllOrderById()).thenReturn(Stream.of(validDeal, validDeal));
         when(mapper.toResponse(any(FxDeal.class))).thenReturn(new FxDealResponse());
+        List<FxDealResponse> streamed = new ArrayList<>();
 
         // Act
-        List<FxDealResponse> responses = service.getAllDeals();
+        service.streamAllDeals(streamed::add);
 
         // Assert
-        assertThat(responses).hasSize(2);
-        verify(repository).findAll();
+        assertThat(streamed).hasSize(2);
+        verify(entityManager, times(2)).detach(validDeal);
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void findDeals_ShouldSplitFoundAndMissingInRequestOrder() {
+        // Arrange
+        FxDealResponse found = FxDealResponse.builder().id(1L).dealUniqueId("FX001").build();
+        when(lookupCache.findAll(List.of("FX404", "FX001", "FX404"))).thenReturn(Map.of("FX001", found));
+
+        // Act
+        DealLookupResponse response = service.findDeals(List.of("FX404", "FX001", "FX404"));
+
+        // Assert
+        assertThat(response.getDeals()).containsExactly(found);
+        assertThat(response.getMissing()).containsExactly("FX404");
+    }
+
+    @Test
+    void findDeals_WhenTooManyIds_ShouldRejectWithoutLookup() {
+        // Arrange
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i <= FxDealService.MAX_LOOKUP_IDS; i++) {
+            ids.add("FX" + i);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.findDeals(ids)).isInstanceOf(InvalidRequestParameterException.class);
+        verifyNoInteractions(lookupCache);
     }
 
     private FxDealRequest createRequest(String dealId) {
@@ -0,0 +1,189 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.InvalidDealException;
+import com.example.datawarehouse.validation.FxDealRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FxDealStreamImporterTest {
+
+    private static final String DEAL_1 = "{\"dealUniqueId\":\"FX001\",\"fromCurrencyIsoCode\":\"USD\","
+            + "\"toCurrencyIsoCode\":\"EUR\",\"dealTimestamp\":\"2024-11-27T10:30:00\",\"dealAmount\":100000.50}";
+    private static final String DEAL_2 = "{\"dealUniqueId\":\"FX002\",\"fromCurrencyIsoCode\":\"GBP\","
+            + "\"toCurrencyIsoCode\":\"USD\",\"dealTimestamp\":\"2024-11-27T11:15:00\",\"dealAmount\":250000.75}";
+    private static final String INVALID_DEAL = "{\"dealUniqueId\":\"FX003\",\"fromCurrencyIsoCode\":\"US\","
+            + "\"toCurrencyIsoCode\":\"EUR\",\"dealTimestamp\":\"2024-11-27T12:00:00\",\"dealAmount\":10}";
+
+    @Mock
+    private FxDealService service;
+
+    @Mock
+    private FxDealCopyLoader copyLoader;
+
+    private FxDealStreamImporter importer;
+
+    private final List<FxDealRequest> consumed = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importer = new FxDealStreamImporter(
+                new ObjectMapper().findAndRegisterModules(),
+                new FxDealRequestValidator(),
+                service,
+                copyLoader,
+                new ImportProperties(),
+                new ImportMetrics(new SimpleMeterRegistry()));
+
+        lenient().when(service.importDeals(any(Iterator.class), any(ImportSummaryResponse.class)))
+                .thenAnswer(this::consumeAll);
+    }
+
+    @Test
+    void importStream_WhenJsonArray_ShouldImportEveryDeal() throws Exception {
+        // Act
+        ImportSummaryResponse summary = importer.importStream(body("[" + DEAL_1 + "," + DEAL_2 + "]"));
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(consumed).extracting(FxDealRequest::getDealUniqueId).containsExactly("FX001", "FX002");
+    }
+
+    @Test
+    void importStream_WhenNdjson_ShouldImportEveryDeal() throws Exception {
+        // Act
+        ImportSummaryResponse summary = importer.importStream(body(DEAL_1 + "\n" + DEAL_2 + "\n"));
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(consumed).extracting(FxDealRequest::getDealUniqueId).containsExactly("FX001", "FX002");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importStream_WhenBulk_ShouldLoadThroughCopyLoader() throws Exception {
+        // Arrange
+        when(copyLoader.load(any(Iterator.class), any(ImportSummaryResponse.class))).thenAnswer(this::consumeAll);
+
+        // Act
+        ImportSummaryResponse summary = importer.importStream(body(DEAL_1 + "\n" + DEAL_2 + "\n"), true, false);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(consumed).extracting(FxDealRequest::getDealUniqueId).containsExactly("FX001", "FX002");
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void importStream_WhenDealInvalid_ShouldStopAtItsIndex() {
+        // Act & Assert
+        assertThatThrownBy(() -> importer.importStream(body(DEAL_1 + "\n" + INVALID_DEAL + "\n" + DEAL_2)))
+                .isInstanceOf(InvalidDealException.class)
+                .satisfies(e -> {
+                    InvalidDealException ex = (InvalidDealException) e;
+                    assertThat(ex.getIndex()).isEqualTo(1);
+                    assertThat(ex.getDetails())
+                            .containsExactly("fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code");
+                });
+        assertThat(consumed).extracting(FxDealRequest::getDealUniqueId).containsExactly("FX001");
+    }
+
+    @Test
+    void importStream_WhenLenient_ShouldReportInvalidDealsAndImportTheRest() throws Exception {
+        // Act
+        ImportSummaryResponse summary = importer.importStream(
+                body(DEAL_1 + "\n" + INVALID_DEAL + "\nnull\n" + DEAL_2), false, true);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(2);
+        assertThat(summary.getSkipped()).isEqualTo(2);
+        assertThat(consumed).extracting(FxDealRequest::getDealUniqueId).containsExactly("FX001", "FX002");
+        assertThat(summary.getErrors()).hasSize(2);
+        assertThat(summary.getErrors().get(0).getIndex()).isEqualTo(1);
+        assertThat(summary.getErrors().get(0).getDealUniqueId()).isEqualTo("FX003");
+        assertThat(summary.getErrors().get(0).getReason()).isEqualTo(ImportSummaryResponse.INVALID_REASON);
+        assertThat(summary.getErrors().get(0).getDetails())
+                .containsExactly("fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code");
+        assertThat(summary.getErrors().get(1).getIndex()).isEqualTo(2);
+        assertThat(summary.getErrors().get(1).getDetails()).containsExactly("Deal must not be null");
+    }
+
+    @Test
+    void importStream_WhenLenientAndBodyMalformed_ShouldStillStop() {
+        // Act & Assert
+        assertThatThrownBy(() -> importer.importStream(body(DEAL_1 + "\n{\"dealUniqueId\":"), false, true))
+                .isInstanceOf(InvalidDealException.class)
+                .satisfies(e -> assertThat(((InvalidDealException) e).getIndex()).isEqualTo(1));
+        assertThat(consumed).extracting(FxDealRequest::getDealUniqueId).containsExactly("FX001");
+    }
+
+    @Test
+    void importLenient_ShouldReportInvalidDealsByPosition() {
+        // Arrange
+        FxDealRequest valid = FxDealRequest.builder()
+                .dealUniqueId("FX010")
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 30))
+                .dealAmount(new BigDecimal("10.00"))
+                .build();
+        FxDealRequest invalid = FxDealRequest.builder()
+                .dealUniqueId("FX011")
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 30))
+                .dealAmount(BigDecimal.ZERO)
+                .build();
+
+        // Act
+        ImportSummaryResponse summary = importer.importLenient(List.of(invalid, valid));
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(1);
+        assertThat(summary.getSkipped()).isEqualTo(1);
+        assertThat(consumed).containsExactly(valid);
+        assertThat(summary.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getIndex()).isZero();
+            assertThat(error.getDealUniqueId()).isEqualTo("FX011");
+            assertThat(error.getDetails()).containsExactly("dealAmount: Deal Amount must be positive");
+        });
+    }
+
+    private ImportSummaryResponse consumeAll(InvocationOnMock invocation) {
+        Iterator<FxDealRequest> deals = invocation.getArgument(0);
+        ImportSummaryResponse summary = invocation.getArgument(1);
+        deals.forEachRemaining(deal -> {
+            consumed.add(deal);
+            summary.record(deal.getDealUniqueId(), null);
+        });
+        return summary;
+    }
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.IdempotencyProperties;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.IdempotencyKeyReusedException;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private static final byte[] FINGERPRINT = {1, 2, 3};
+    private static final byte[] OTHER_FINGERPRINT = {1, 2, 4};
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(properties, meterRegistry);
+    }
+
+    @Test
+    void execute_WhenKeyReplayed_ShouldReturnStoredSummaryWithoutImporting() {
+        // Arrange
+        AtomicInteger imports = new AtomicInteger();
+
+        // Act
+        ImportSummaryResponse first = store.execute("key-1", FINGERPRINT, () -> summary(imports.incrementAndGet()));
+        ImportSummaryResponse replay = store.execute("key-1", FINGERPRINT, () -> summary(imports.incrementAndGet()));
+
+        // Assert
+        assertThat(imports).hasValue(1);
+        assertThat(replay).isEqualTo(first);
+        assertThat(meterRegistry.get("fxdeals.idempotency.requests").tag("outcome", "replayed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_WhenSummaryHasManyErrors_ShouldStoreBoundedInMemoryCopy() {
+        // Arrange
+        properties.setMaxStoredErrors(3);
+        store = new IdempotencyStore(properties, meterRegistry);
+        ImportSummaryResponse summary = ImportSummaryResponse.withSpilledErrors(2);
+        for (int i = 0; i < 5; i++) {
+            summary.record("FX" + i, "Duplicate entry");
+        }
+
+        // Act
+        ImportSummaryResponse first = store.execute("key-1", FINGERPRINT, () -> summary);
+        ImportSummaryResponse replay = store.execute("key-1", FINGERPRINT, () -> summary(1));
+
+        // Assert
+        assertThat(first).isSameAs(summary);
+        assertThat(replay.getSkipped()).isEqualTo(5);
+        assertThat(replay.getErrors()).isInstanceOf(ArrayList.class)
+                .extracting(ImportSummaryResponse.ErrorDetail::getDealUniqueId)
+                .containsExactly("FX0", "FX1", "FX2");
+        assertThat(replay.getOmittedErrors()).isEqualTo(2);
+        assertThat(first.getOmittedErrors()).isNull();
+    }
+
+    @Test
+    void lookup_WhenImportCompleted_ShouldReturnStoredSummary() {
+        // Arrange
+        store.execute("key-1", FINGERPRINT, () -> summary(3));
+
+        // Act & Assert
+        assertThat(store.lookup("key-1", FINGERPRINT)).hasValueSatisfying(
+                replay -> assertThat(replay.getImported()).isEqualTo(3));
+        assertThat(store.lookup("key-2", FINGERPRINT)).isEmpty();
+        assertThatThrownBy(() -> store.lookup("key-1", OTHER_FINGERPRINT))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void execute_WhenKeyReusedForDifferentRequest_ShouldThrow() {
+        // Arrange
+        store.execute("key-1", FINGERPRINT, () -> summary(1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> store.execute("key-1", OTHER_FINGERPRINT, () -> summary(2)))
+                .isInstanceOf(IdempotencyKeyReusedException.class)
+                .hasMessageContaining("key-1");
+    }
+
+    @Test
+    void execute_WhenImportFails_ShouldNotStoreTheKey() {
+        // Arrange
+        AtomicInteger imports = new AtomicInteger();
+
+        // Act
+        assertThatThrownBy(() -> store.execute("key-1", FINGERPRINT, () -> {
+            imports.incrementAndGet();
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        ImportSummaryResponse retry = store.execute("key-1", FINGERPRINT, () -> summary(imports.incrementAndGet()));
+
+        // Assert
+        assertThat(imports).hasValue(2);
+        assertThat(retry.getImported()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_WhenDuplicateArrivesDuringImport_ShouldRejectItWithoutWaiting() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger imports = new AtomicInteger();
+        CompletableFuture<ImportSummaryResponse> first = CompletableFuture.supplyAsync(() ->
+                store.execute("key-1", FINGERPRINT, () -> {
+                    started.countDown();
+                    await(release);
+                    return summary(imports.incrementAndGet());
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act & Assert
+        try {
+            assertThatThrownBy(() -> store.lookup("key-1", FINGERPRINT))
+                    .isInstanceOfSatisfying(ImportRejectedException.class,
+                            e -> assertThat(e.getRetryAfter()).isPositive());
+            assertThatThrownBy(() -> store.execute("key-1", FINGERPRINT, () -> summary(imports.incrementAndGet())))
+                    .isInstanceOf(ImportRejectedException.class);
+            assertThatThrownBy(() -> store.lookup("key-1", OTHER_FINGERPRINT))
+                    .isInstanceOf(IdempotencyKeyReusedException.class);
+        } finally {
+            release.countDown();
+        }
+        assertThat(first.get(5, TimeUnit.SECONDS).getImported()).isEqualTo(1);
+        assertThat(store.lookup("key-1", FINGERPRINT)).isPresent();
+        assertThat(imports).hasValue(1);
+    }
+
+    private static ImportSummaryResponse summary(int imported) {
+        return ImportSummaryResponse.builder()
+                .imported(imported)
+                .skipped(0)
+                .errors(new ArrayList<>())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
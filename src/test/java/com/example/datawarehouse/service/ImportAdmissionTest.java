@@ -0,0 +1,163 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.AdmissionProperties;
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportAdmissionTest {
+
+    private final AdmissionProperties properties = new AdmissionProperties();
+    private final ImportProperties importProperties = new ImportProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        properties.setBulkThreshold(1_000);
+        properties.setSmall(new AdmissionProperties.Lane(1, 1, 1));
+        properties.setBulk(new AdmissionProperties.Lane(1, 1, 1));
+    }
+
+    @Test
+    void admit_WhenLaneFull_ShouldRejectWithRetryAfter() {
+        // Arrange
+        ImportAdmission admission = createAdmission();
+        admission.admit(10);
+
+        // Act & Assert
+        assertThatThrownBy(() -> admission.admit(10))
+                .isInstanceOfSatisfying(ImportRejectedException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(2)));
+        assertThat(meterRegistry.get("fxdeals.admission.rejected").tag("lane", "small").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void admit_WhenSmallLaneFull_ShouldStillAdmitBulkImport() {
+        // Arrange
+        ImportAdmission admission = createAdmission();
+        admission.admit(10);
+
+        // Act
+        ImportAdmission.Permit permit = admission.admit(1_000);
+
+        // Assert
+        assertThat(permit).isNotNull();
+        assertThat(admission.laneFor(1_000)).isEqualTo(ImportAdmission.Lane.BULK);
+    }
+
+    @Test
+    void admit_AfterPermitClosedTwice_ShouldFreeOneSlot() {
+        // Arrange
+        properties.setSmall(new AdmissionProperties.Lane(2, 2, 2));
+        ImportAdmission admission = createAdmission();
+        ImportAdmission.Permit permit = admission.admit(10);
+        admission.admit(10);
+
+        // Act
+        permit.close();
+        permit.close();
+        admission.admit(10);
+
+        // Assert
+        assertThatThrownBy(() -> admission.admit(10)).isInstanceOf(ImportRejectedException.class);
+    }
+
+    @Test
+    void admit_WhenDisabled_ShouldAdmitEverything() {
+        // Arrange
+        properties.setEnabled(false);
+        ImportAdmission admission = createAdmission();
+
+        // Act & Assert
+        assertThat(admission.admit(10)).isSameAs(ImportAdmission.Permit.UNLIMITED);
+        assertThat(admission.admit(10)).isSameAs(ImportAdmission.Permit.UNLIMITED);
+    }
+
+    @Test
+    void recordChunk_WhenChunksSlowDown_ShouldLowerLimits() {
+        // Arrange
+        properties.setSmall(new AdmissionProperties.Lane(4, 1, 8));
+        ImportAdmission admission = createAdmission();
+        admission.recordChunk(100, Duration.ofMillis(1).toNanos());
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            admission.recordChunk(100, Duration.ofMillis(10).toNanos());
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("fxdeals.admission.limit").tag("lane", "small").gauge().value())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    void recordChunk_WhenSmallerChunksSlowerPerDeal_ShouldKeepLimits() {
+        // Arrange
+        properties.setSmall(new AdmissionProperties.Lane(4, 1, 8));
+        ImportAdmission admission = createAdmission();
+        admission.recordChunk(1_000, Duration.ofMillis(1).toNanos());
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            admission.recordChunk(200, Duration.ofMillis(1).toNanos());
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("fxdeals.admission.limit").tag("lane", "small").gauge().value())
+                .isEqualTo(4.0);
+    }
+
+    @Test
+    void recordChunk_WhenChunkBelowMinBatchSize_ShouldIgnoreIt() {
+        // Arrange
+        properties.setSmall(new AdmissionProperties.Lane(4, 1, 8));
+        ImportAdmission admission = createAdmission();
+        admission.recordChunk(100, Duration.ofMillis(1).toNanos());
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            admission.recordChunk(10, Duration.ofMillis(10).toNanos());
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("fxdeals.admission.limit").tag("lane", "small").gauge().value())
+                .isEqualTo(4.0);
+    }
+
+    @Test
+    void batchSize_ShouldStartAtConfiguredBatchSize() {
+        // Arrange
+        importProperties.setBatchSize(300);
+
+        // Act
+        ImportAdmission admission = createAdmission();
+
+        // Assert
+        assertThat(admission.batchSize()).isEqualTo(300);
+    }
+
+    @Test
+    void batchSize_WhenTuningDisabled_ShouldIgnoreMeasuredThroughput() {
+        // Arrange
+        properties.setAdaptiveBatchSize(false);
+        properties.setTuningWindow(1);
+        ImportAdmission admission = createAdmission();
+
+        // Act
+        admission.recordChunk(500, Duration.ofMillis(100).toNanos());
+
+        // Assert
+        assertThat(admission.batchSize()).isEqualTo(importProperties.getBatchSize());
+    }
+
+    private ImportAdmission createAdmission() {
+        return new ImportAdmission(properties, importProperties, meterRegistry);
+    }
+}
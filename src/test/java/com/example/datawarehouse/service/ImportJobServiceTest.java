@@ -0,0 +1,119 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportJobProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportJobResponse;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private FxDealService fxDealService;
+
+    @Mock
+    private ImportAdmission admission;
+
+    private final ImportJobProperties properties = new ImportJobProperties();
+
+    @Test
+    void submit_ShouldReturnQueuedJobUntilWorkerRuns() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        ImportJobService jobService = new ImportJobService(fxDealService, admission, properties, queued::add);
+        AtomicInteger released = new AtomicInteger();
+        when(admission.admit(ImportAdmission.Lane.BULK)).thenReturn(new ImportAdmission.Permit(released::incrementAndGet));
+        when(fxDealService.importDeals(anyList(), any(ImportProgressListener.class))).thenAnswer(inv -> {
+            inv.<ImportProgressListener>getArgument(1).onProgress(1, 0);
+            return ImportSummaryResponse.builder().imported(2).skipped(1).build();
+        });
+
+        // Act
+        ImportJobResponse submitted = jobService.submit(List.of(new FxDealRequest()));
+        int releasedWhileQueued = released.get();
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertThat(submitted.getStatus()).isEqualTo(ImportJobResponse.Status.QUEUED);
+        assertThat(releasedWhileQueued).isZero();
+        assertThat(released).hasValue(1);
+        ImportJobResponse finished = jobService.getJob(submitted.getJobId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(ImportJobResponse.Status.COMPLETED);
+        assertThat(finished.getImported()).isEqualTo(2);
+        assertThat(finished.getSkipped()).isEqualTo(1);
+        assertThat(finished.getSummary()).isNotNull();
+        assertThat(finished.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void submit_WhenImportFails_ShouldMarkJobFailed() {
+        // Arrange
+        ImportJobService jobService = new ImportJobService(fxDealService, admission, properties, Runnable::run);
+        AtomicInteger released = new AtomicInteger();
+        when(admission.admit(ImportAdmission.Lane.BULK)).thenReturn(new ImportAdmission.Permit(released::incrementAndGet));
+        when(fxDealService.importDeals(anyList(), any(ImportProgressListener.class)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        // Act
+        ImportJobResponse submitted = jobService.submit(List.of(new FxDealRequest()));
+
+        // Assert
+        ImportJobResponse finished = jobService.getJob(submitted.getJobId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(ImportJobResponse.Status.FAILED);
+        assertThat(finished.getError()).isEqualTo("database down");
+        assertThat(released).hasValue(1);
+    }
+
+    @Test
+    void submit_WhenQueueFull_ShouldRejectAndForgetJob() {
+        // Arrange
+        ImportJobService jobService = new ImportJobService(fxDealService, admission, properties, task -> {
+            throw new TaskRejectedException("full");
+        });
+        AtomicInteger released = new AtomicInteger();
+        when(admission.admit(ImportAdmission.Lane.BULK)).thenReturn(new ImportAdmission.Permit(released::incrementAndGet));
+
+        // Act & Assert
+        assertThatThrownBy(() -> jobService.submit(List.of(new FxDealRequest())))
+                .isInstanceOf(ImportRejectedException.class);
+        assertThat(released).hasValue(1);
+    }
+
+    @Test
+    void submit_WhenBulkLaneFull_ShouldRejectWithoutQueuing() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        ImportJobService jobService = new ImportJobService(fxDealService, admission, properties, queued::add);
+        when(admission.admit(ImportAdmission.Lane.BULK))
+                .thenThrow(new ImportRejectedException("Too many bulk imports in progress", Duration.ofSeconds(2)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> jobService.submit(List.of(new FxDealRequest())))
+                .isInstanceOf(ImportRejectedException.class);
+        assertThat(queued).isEmpty();
+    }
+
+    @Test
+    void getJob_WhenUnknownId_ShouldReturnEmpty() {
+        // Arrange
+        ImportJobService jobService = new ImportJobService(fxDealService, admission, properties, Runnable::run);
+
+        // Act & Assert
+        assertThat(jobService.getJob("missing")).isEmpty();
+    }
+}
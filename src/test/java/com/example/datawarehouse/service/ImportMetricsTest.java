@@ -0,0 +1,47 @@
+package com.example.datawarehouse.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImportMetrics metrics = new ImportMetrics(registry);
+
+    @Test
+    void recordOutcomes_ShouldCountDealsByOutcomeAndReason() {
+        // Act
+        metrics.recordOutcomes(Arrays.asList(null, null, FxDealService.DUPLICATE_REASON, "Connection reset"));
+
+        // Assert
+        assertThat(dealCount("imported", "none")).isEqualTo(2);
+        assertThat(dealCount("skipped", "duplicate")).isEqualTo(1);
+        assertThat(dealCount("failed", "error")).isEqualTo(1);
+        assertThat(registry.get("fxdeals.import.chunk.size").summary().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void time_ShouldRecordStageDuration() {
+        // Act
+        String result = metrics.time(ImportMetrics.Stage.DEDUP, () -> "done");
+
+        // Assert
+        assertThat(result).isEqualTo("done");
+        assertThat(registry.get("fxdeals.import.stage").tag("stage", "dedup").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void timeCommit_WithoutTransaction_ShouldDoNothing() {
+        // Act
+        metrics.timeCommit();
+
+        // Assert
+        assertThat(registry.get("fxdeals.import.stage").tag("stage", "commit").timer().count()).isZero();
+    }
+
+    private double dealCount(String outcome, String reason) {
+        return registry.get("fxdeals.import.deals").tag("outcome", outcome).tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportRequestProperties;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportRequestExecutorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ImportRequestExecutor importRequestExecutor;
+
+    @AfterEach
+    void tearDown() {
+        importRequestExecutor.destroy();
+    }
+
+    @Test
+    void submit_ShouldRunOnImportPoolWithConfiguredTimeout() throws Exception {
+        // Arrange
+        importRequestExecutor = new ImportRequestExecutor(properties(2, 4), meterRegistry);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Act
+        DeferredResult<String> result = importRequestExecutor.submit(() -> Thread.currentThread().getName());
+        result.setResultHandler(value -> done.countDown());
+
+        // Assert
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat((String) result.getResult()).startsWith("import-request-");
+        assertThat(result.getTimeoutValue()).isEqualTo(Duration.ofMinutes(1).toMillis());
+        assertThat(meterRegistry.find("executor.queued").tag("name", "import-requests").gauge()).isNotNull();
+    }
+
+    @Test
+    void submit_WhenImportFails_ShouldSetErrorResult() {
+        // Arrange
+        importRequestExecutor = new ImportRequestExecutor(properties(0, 0), meterRegistry);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        // Act
+        DeferredResult<String> result = importRequestExecutor.submit(() -> {
+            throw failure;
+        });
+
+        // Assert
+        assertThat(result.getResult()).isSameAs(failure);
+    }
+
+    @Test
+    void submit_WhenWorkersAndQueueBusy_ShouldRejectWithRetryAfter() {
+        // Arrange
+        importRequestExecutor = new ImportRequestExecutor(properties(1, 1), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        importRequestExecutor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        importRequestExecutor.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        try {
+            assertThatThrownBy(() -> importRequestExecutor.submit(() -> "third"))
+                    .isInstanceOf(ImportRejectedException.class)
+                    .satisfies(e -> assertThat(((ImportRejectedException) e).getRetryAfter()).isPositive());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_WhenNoWorkers_ShouldRunOnCallingThread() {
+        // Arrange
+        importRequestExecutor = new ImportRequestExecutor(properties(0, 0), meterRegistry);
+
+        // Act
+        DeferredResult<String> result = importRequestExecutor.submit(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertThat(result.getResult()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void submit_WhenRequestTimesOut_ShouldImportRemainingChunksWithoutInterrupt() throws Exception {
+        // Arrange
+        importRequestExecutor = new ImportRequestExecutor(properties(1, 0), meterRegistry);
+        CountDownLatch firstChunkDone = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch importDone = new CountDownLatch(1);
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncWebRequest =
+                new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(asyncWebRequest);
+
+        DeferredResult<Integer> result = importRequestExecutor.submit(() -> {
+            try {
+                chunks.incrementAndGet();
+                firstChunkDone.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                chunks.incrementAndGet();
+                chunks.incrementAndGet();
+                return chunks.get();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw e;
+            } finally {
+                interrupted.compareAndSet(false, Thread.currentThread().isInterrupted());
+                importDone.countDown();
+            }
+        });
+        asyncManager.startDeferredResultProcessing(result);
+        assertThat(firstChunkDone.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        asyncWebRequest.onTimeout(new AsyncEvent(request.getAsyncContext()));
+        release.countDown();
+
+        // Assert
+        assertThat(asyncManager.getConcurrentResult()).isInstanceOf(AsyncRequestTimeoutException.class);
+        assertThat(importDone.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(chunks).hasValue(3);
+        assertThat(interrupted).isFalse();
+    }
+
+    private static ImportRequestProperties properties(int workers, int queueCapacity) {
+        ImportRequestProperties properties = new ImportRequestProperties();
+        properties.setWorkers(workers);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setTimeout(Duration.ofMinutes(1));
+        return properties;
+    }
+}
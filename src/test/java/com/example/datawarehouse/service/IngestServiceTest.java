@@ -0,0 +1,198 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.IngestLogProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.IngestAckResponse;
+import com.example.datawarehouse.exception.ImportRejectedException;
+import com.example.datawarehouse.exception.InvalidRequestParameterException;
+import com.example.datawarehouse.mapper.FxDealMapper;
+import com.example.datawarehouse.mapper.FxDealMapperImpl;
+import com.example.datawarehouse.model.FxDeal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IngestServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-11-27T10:30:00Z");
+
+    @Mock
+    private FxDealService fxDealService;
+
+    @Mock
+    private ImportAdmission admission;
+
+    @Mock
+    private Clock clock;
+
+    @TempDir
+    Path directory;
+
+    private final FxDealMapper mapper = new FxDealMapperImpl();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IngestService ingestService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ingestService != null) {
+            ingestService.destroy();
+        }
+    }
+
+    @Test
+    void ingest_ShouldAcknowledgeBeforeDrainingToDatabase() throws Exception {
+        // Arrange
+        ingestService = createService(true);
+
+        // Act
+        IngestAckResponse ack = ingestService.ingest(List.of(createRequest("FX001"), createRequest("FX002")));
+
+        // Assert
+        assertThat(ack.getAccepted()).isEqualTo(2);
+        assertThat(ack.getPending()).isEqualTo(2);
+        verifyNoInteractions(fxDealService);
+        assertThat(meterRegistry.get("fxdeals.ingest.pending").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void drainOnce_ShouldWriteLoggedDealsAndCommit() throws Exception {
+        // Arrange
+        ingestService = createService(true);
+        ingestService.ingest(List.of(createRequest("FX001"), createRequest("FX002")));
+        AtomicInteger released = new AtomicInteger();
+        when(admission.admit(ImportAdmission.Lane.BULK)).thenReturn(new ImportAdmission.Permit(released::incrementAndGet));
+        when(fxDealService.importEntityChunk(anyList())).thenReturn(Arrays.asList(null, FxDealService.DUPLICATE_REASON));
+
+        // Act
+        boolean drained = ingestService.drainOnce();
+        boolean drainedAgain = ingestService.drainOnce();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<FxDeal>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(fxDealService).importEntityChunk(chunk.capture());
+        assertThat(chunk.getValue()).extracting(FxDeal::getDealUniqueId).containsExactly("FX001", "FX002");
+        assertThat(drained).isTrue();
+        assertThat(drainedAgain).isFalse();
+        assertThat(meterRegistry.get("fxdeals.ingest.pending").gauge().value()).isZero();
+        assertThat(meterRegistry.get("fxdeals.ingest.drained").counter().count()).isEqualTo(2.0);
+        assertThat(released).hasValue(1);
+    }
+
+    @Test
+    void drainOnce_WhenBulkLaneFull_ShouldWriteNothing() throws Exception {
+        // Arrange
+        ingestService = createService(true);
+        ingestService.ingest(List.of(createRequest("FX001")));
+        when(admission.admit(ImportAdmission.Lane.BULK))
+                .thenThrow(new ImportRejectedException("Too many bulk imports in progress", Duration.ofSeconds(2)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> ingestService.drainOnce()).isInstanceOf(ImportRejectedException.class);
+        verifyNoInteractions(fxDealService);
+        assertThat(meterRegistry.get("fxdeals.ingest.pending").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void drainOnce_WhenDatabaseFails_ShouldKeepDealsForRetry() throws Exception {
+        // Arrange
+        when(clock.millis()).thenReturn(NOW.toEpochMilli(), NOW.plusSeconds(30).toEpochMilli());
+        ingestService = createService(true, clock);
+        ingestService.ingest(List.of(createRequest("FX001")));
+        when(admission.admit(ImportAdmission.Lane.BULK)).thenReturn(ImportAdmission.Permit.UNLIMITED);
+        when(fxDealService.importEntityChunk(anyList()))
+                .thenReturn(Arrays.asList("Connection refused"))
+                .thenReturn(Arrays.asList((String) null));
+
+        // Act
+        assertThatThrownBy(() -> ingestService.drainOnce()).isInstanceOf(IllegalStateException.class);
+        double lag = meterRegistry.get("fxdeals.ingest.lag").timeGauge().value(TimeUnit.SECONDS);
+        boolean retried = ingestService.drainOnce();
+
+        // Assert
+        assertThat(lag).isEqualTo(30.0);
+        assertThat(retried).isTrue();
+        verify(fxDealService, times(2)).importEntityChunk(anyList());
+        assertThat(meterRegistry.get("fxdeals.ingest.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void afterPropertiesSet_ShouldReplayDealsNotDrainedBeforeRestart() throws Exception {
+        // Arrange
+        ingestService = createService(true);
+        ingestService.ingest(List.of(createRequest("FX001")));
+        ingestService.destroy();
+
+        // Act
+        ingestService = createService(true);
+
+        // Assert
+        assertThat(meterRegistry.get("fxdeals.ingest.pending").gauge().value()).isEqualTo(1.0);
+        when(admission.admit(ImportAdmission.Lane.BULK)).thenReturn(ImportAdmission.Permit.UNLIMITED);
+        when(fxDealService.importEntityChunk(anyList())).thenReturn(Arrays.asList((String) null));
+        assertThat(ingestService.drainOnce()).isTrue();
+    }
+
+    @Test
+    void ingest_WhenDisabled_ShouldThrow() throws Exception {
+        // Arrange
+        ingestService = createService(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> ingestService.ingest(List.of(createRequest("FX001"))))
+                .isInstanceOf(InvalidRequestParameterException.class);
+    }
+
+    private IngestService createService(boolean enabled) throws Exception {
+        return createService(enabled, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private IngestService createService(boolean enabled, Clock clock) throws Exception {
+        IngestLogProperties properties = new IngestLogProperties();
+        properties.setEnabled(enabled);
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setRetryDelay(Duration.ofMillis(10));
+        meterRegistry.clear();
+        IngestService service = new IngestService(properties, fxDealService, admission, mapper, meterRegistry, clock);
+        service.afterPropertiesSet();
+        return service;
+    }
+
+    private FxDealRequest createRequest(String dealId) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 0))
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+}
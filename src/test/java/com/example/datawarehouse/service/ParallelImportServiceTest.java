@@ -0,0 +1,82 @@
+package com.example.datawarehouse.service;
+
+import com.example.datawarehouse.config.ImportProperties;
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelImportServiceTest {
+
+    @Mock
+    private FxDealService fxDealService;
+
+    private ParallelImportService parallelImportService;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties properties = new ImportProperties();
+        properties.setParallelism(4);
+        properties.setBatchSize(3);
+        parallelImportService = new ParallelImportService(fxDealService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelImportService.destroy();
+    }
+
+    @Test
+    void importDeals_ShouldMergePartitionOutcomesInInputOrder() {
+        // Arrange: IDs ending in 7 are already stored, later repeats of an ID are duplicates
+        List<FxDealRequest> requests = new ArrayList<>();
+        IntStream.range(0, 40).forEach(i -> requests.add(createRequest("FX" + i)));
+        requests.add(createRequest("FX3"));
+
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        when(fxDealService.importChunk(anyList())).thenAnswer(inv -> {
+            List<FxDealRequest> chunk = inv.getArgument(0);
+            List<String> reasons = new ArrayList<>();
+            for (FxDealRequest deal : chunk) {
+                boolean duplicate = !seen.add(deal.getDealUniqueId()) || deal.getDealUniqueId().endsWith("7");
+                reasons.add(duplicate ? "Duplicate entry" : null);
+            }
+            return reasons;
+        });
+
+        // Act
+        ImportSummaryResponse summary = parallelImportService.importDeals(requests);
+
+        // Assert
+        assertThat(summary.getImported()).isEqualTo(36);
+        assertThat(summary.getSkipped()).isEqualTo(5);
+        assertThat(summary.getErrors())
+                .extracting(ImportSummaryResponse.ErrorDetail::getDealUniqueId)
+                .containsExactly("FX7", "FX17", "FX27", "FX37", "FX3");
+    }
+
+    private FxDealRequest createRequest(String dealId) {
+        return FxDealRequest.builder()
+                .dealUniqueId(dealId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.now())
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+}
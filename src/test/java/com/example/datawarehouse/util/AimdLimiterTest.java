@@ -0,0 +1,81 @@
+package com.example.datawarehouse.util;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    @Test
+    void tryAcquire_ShouldRefuseBeyondLimitUntilReleased() {
+        // Arrange
+        AimdLimiter limiter = new AimdLimiter(2, 1, 4);
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onSample_WhenCongested_ShouldCutLimitOncePerRound() {
+        // Arrange
+        AimdLimiter limiter = new AimdLimiter(4, 1, 8);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            limiter.onSample(true);
+        }
+        int beforeRoundEnds = limiter.limit();
+        limiter.onSample(true);
+
+        // Assert
+        assertThat(beforeRoundEnds).isEqualTo(4);
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void onSample_WhenCongestedForLong_ShouldStopAtMinimum() {
+        // Arrange
+        AimdLimiter limiter = new AimdLimiter(4, 2, 8);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(true);
+        }
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void onSample_WhenFineAndLimitInUse_ShouldGrowAboutOnePerRound() {
+        // Arrange
+        AimdLimiter limiter = new AimdLimiter(2, 1, 8);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            limiter.onSample(false);
+        }
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void onSample_WhenFineButIdle_ShouldKeepLimit() {
+        // Arrange
+        AimdLimiter limiter = new AimdLimiter(2, 1, 8);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(false);
+        }
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+}
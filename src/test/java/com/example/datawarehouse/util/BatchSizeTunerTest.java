@@ -0,0 +1,62 @@
+package com.example.datawarehouse.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchSizeTunerTest {
+
+    @Test
+    void record_ShouldKeepSizeUntilWindowIsFull() {
+        // Arrange
+        BatchSizeTuner tuner = new BatchSizeTuner(400, 100, 1000, 2);
+
+        // Act
+        tuner.record(400, millis(400));
+
+        // Assert
+        assertThat(tuner.size()).isEqualTo(400);
+    }
+
+    @Test
+    void record_WhenThroughputImproves_ShouldKeepGrowing() {
+        // Arrange
+        BatchSizeTuner tuner = new BatchSizeTuner(400, 100, 1000, 1);
+
+        // Act
+        tuner.record(400, millis(400));
+        tuner.record(500, millis(400));
+
+        // Assert
+        assertThat(tuner.size()).isEqualTo(625);
+    }
+
+    @Test
+    void record_WhenThroughputDrops_ShouldTurnBack() {
+        // Arrange
+        BatchSizeTuner tuner = new BatchSizeTuner(400, 100, 1000, 1);
+
+        // Act
+        tuner.record(400, millis(400));
+        tuner.record(500, millis(1000));
+
+        // Assert
+        assertThat(tuner.size()).isEqualTo(375);
+    }
+
+    @Test
+    void record_ShouldStayWithinBounds() {
+        // Arrange
+        BatchSizeTuner tuner = new BatchSizeTuner(900, 100, 1000, 1);
+
+        // Act
+        tuner.record(900, millis(100));
+
+        // Assert
+        assertThat(tuner.size()).isEqualTo(1000);
+    }
+
+    private static long millis(long millis) {
+        return Duration.ofMillis(millis).toNanos();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.datawarehouse.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.stream.IntStream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissInsertedValues() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, 1 << 20);
+
+        // Act
+        IntStream.range(0, 10_000).forEach(i -> filter.put("FX" + i));
+
+        // Assert
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("FX" + i))).isTrue();
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, 1 << 20);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("FX" + i));
+
+        // Act
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("OTHER" + i))
+                .count();
+
+        // Assert
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void create_ShouldRespectMemoryBudget() {
+        // Act
+        BloomFilter filter = BloomFilter.create(10_000_000, 0.01, 1024);
+
+        // Assert
+        assertThat(filter.bitSize()).isEqualTo(1024 * 8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.datawarehouse.util;
+
+import com.example.datawarehouse.exception.InvalidDealException;
+import com.example.datawarehouse.model.FxDeal;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxDealBinaryFormatTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 11, 27, 10, 30, 0, 123_456_000);
+
+    @Test
+    void reader_ShouldDecodeWhatWriterEncoded() throws IOException {
+        // Arrange
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (FxDealBinaryFormat.Writer writer = new FxDealBinaryFormat.Writer(payload, 2)) {
+            writer.write("FX001", "USD", "EUR", TIMESTAMP, new BigDecimal("100000.50"));
+            writer.write("FX002", "GBP", "USD", TIMESTAMP.plusHours(1), new BigDecimal("0.0001"));
+            writer.write("FX003", "USD", "JPY", TIMESTAMP.minusYears(60), new BigDecimal("999999999999999.9999"));
+        }
+
+        // Act
+        List<FxDeal> deals = readAll(payload.toByteArray());
+
+        // Assert
+        assertThat(deals).extracting(FxDeal::getDealUniqueId).containsExactly("FX001", "FX002", "FX003");
+        assertThat(deals).extracting(FxDeal::getFromCurrencyIsoCode).containsExactly("USD", "GBP", "USD");
+        assertThat(deals).extracting(FxDeal::getToCurrencyIsoCode).containsExactly("EUR", "USD", "JPY");
+        assertThat(deals).extracting(FxDeal::getDealTimestamp)
+                .containsExactly(TIMESTAMP, TIMESTAMP.plusHours(1), TIMESTAMP.minusYears(60));
+        assertThat(deals.get(0).getDealAmount()).isEqualByComparingTo("100000.50");
+        assertThat(deals.get(1).getDealAmount()).isEqualByComparingTo("0.0001");
+        assertThat(deals.get(2).getDealAmount()).isEqualByComparingTo("999999999999999.9999");
+    }
+
+    @Test
+    void reader_WhenDealInvalid_ShouldReportBeanValidationMessagesAtItsIndex() throws IOException {
+        // Arrange
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (FxDealBinaryFormat.Writer writer = new FxDealBinaryFormat.Writer(payload)) {
+            writer.write("FX001", "USD", "EUR", TIMESTAMP, BigDecimal.TEN);
+            writer.write(" ", "usd", "EUR", TIMESTAMP, BigDecimal.ZERO);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> readAll(payload.toByteArray()))
+                .isInstanceOf(InvalidDealException.class)
+                .satisfies(e -> {
+                    InvalidDealException ex = (InvalidDealException) e;
+                    assertThat(ex.getIndex()).isEqualTo(1);
+                    assertThat(ex.getDetails()).containsExactly(
+                            "dealAmount: Deal Amount must be positive",
+                            "dealUniqueId: Deal Unique ID is required",
+                            "fromCurrencyIsoCode: From Currency must be a valid 3-letter ISO code");
+                });
+    }
+
+    @Test
+    void reader_WhenPayloadTruncated_ShouldReportMalformedPayload() throws IOException {
+        // Arrange
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (FxDealBinaryFormat.Writer writer = new FxDealBinaryFormat.Writer(payload)) {
+            writer.write("FX001", "USD", "EUR", TIMESTAMP, BigDecimal.TEN);
+        }
+        byte[] bytes = payload.toByteArray();
+
+        // Act & Assert
+        assertThatThrownBy(() -> readAll(Arrays.copyOf(bytes, bytes.length - 10)))
+                .isInstanceOf(InvalidDealException.class)
+                .satisfies(e -> assertThat(((InvalidDealException) e).getDetails())
+                        .containsExactly("Malformed binary payload: unexpected end of payload"));
+    }
+
+    @Test
+    void reader_WhenHeaderUnknown_ShouldReportMalformedPayload() {
+        // Act & Assert
+        assertThatThrownBy(() -> readAll("[{\"dealUniqueId\":\"FX001\"}]".getBytes()))
+                .isInstanceOf(InvalidDealException.class)
+                .satisfies(e -> assertThat(((InvalidDealException) e).getDetails())
+                        .containsExactly("Malformed binary payload: unsupported header"));
+    }
+
+    private List<FxDeal> readAll(byte[] payload) throws IOException {
+        FxDealBinaryFormat.Reader reader = new FxDealBinaryFormat.Reader(new ByteArrayInputStream(payload));
+        List<FxDeal> deals = new ArrayList<>();
+        for (FxDeal deal = reader.next(); deal != null; deal = reader.next()) {
+            deals.add(deal);
+        }
+        return deals;
+    }
+}
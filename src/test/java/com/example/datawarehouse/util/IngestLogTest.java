@@ -0,0 +1,164 @@
+package com.example.datawarehouse.util;
+
+import com.example.datawarehouse.model.FxDeal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final long APPENDED_AT = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ShouldReturnDurableDealsAsAppended() throws IOException {
+        // Arrange
+        FxDeal deal = createDeal("FX-é-1", new BigDecimal("-1234567890.1234"));
+        try (IngestLog log = IngestLog.open(directory, SEGMENT_SIZE)) {
+            long position = log.append(List.of(deal), APPENDED_AT);
+
+            // Act
+            List<IngestLog.Entry> beforeSync = log.read(log.committedPosition(), 10);
+            log.awaitDurable(position);
+            List<IngestLog.Entry> entries = log.read(log.committedPosition(), 10);
+
+            // Assert
+            assertThat(beforeSync).isEmpty();
+            assertThat(entries).hasSize(1);
+            assertThat(entries.get(0).deal()).usingRecursiveComparison().isEqualTo(deal);
+            assertThat(entries.get(0).appendedAtMillis()).isEqualTo(APPENDED_AT);
+            assertThat(entries.get(0).nextPosition()).isEqualTo(position);
+        }
+    }
+
+    @Test
+    void open_ShouldReplayDealsAfterTheCheckpoint() throws IOException {
+        // Arrange
+        try (IngestLog log = IngestLog.open(directory, SEGMENT_SIZE)) {
+            log.awaitDurable(log.append(createDeals(0, 3), APPENDED_AT));
+            List<IngestLog.Entry> first = log.read(log.committedPosition(), 1);
+            log.commit(first.get(0).nextPosition());
+        }
+
+        // Act
+        try (IngestLog reopened = IngestLog.open(directory, SEGMENT_SIZE)) {
+            List<IngestLog.Entry> replayed = reopened.read(reopened.committedPosition(), 10);
+
+            // Assert
+            assertThat(reopened.recoveredRecords()).isEqualTo(2);
+            assertThat(replayed).extracting(entry -> entry.deal().getDealUniqueId())
+                    .containsExactly("FX1", "FX2");
+        }
+    }
+
+    @Test
+    void open_ShouldDropRecordTornByCrashAndAppendAfterLastValidOne() throws IOException {
+        // Arrange
+        long torn;
+        try (IngestLog log = IngestLog.open(directory, SEGMENT_SIZE)) {
+            long valid = log.append(createDeals(0, 1), APPENDED_AT);
+            log.awaitDurable(log.append(createDeals(1, 1), APPENDED_AT));
+            torn = valid;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // Corrupt the payload of the second record
+            file.seek(torn + 20);
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        // Act
+        try (IngestLog reopened = IngestLog.open(directory, SEGMENT_SIZE)) {
+            reopened.awaitDurable(reopened.append(createDeals(2, 1), APPENDED_AT));
+            List<IngestLog.Entry> entries = reopened.read(reopened.committedPosition(), 10);
+
+            // Assert
+            assertThat(reopened.recoveredRecords()).isEqualTo(1);
+            assertThat(entries).extracting(entry -> entry.deal().getDealUniqueId())
+                    .containsExactly("FX0", "FX2");
+        }
+    }
+
+    @Test
+    void read_WhenRecordCorruptInEarlierSegment_ShouldSkipToNextSegment() throws IOException {
+        // Arrange
+        long corrupt;
+        try (IngestLog log = IngestLog.open(directory, SEGMENT_SIZE)) {
+            corrupt = log.append(createDeals(0, 1), APPENDED_AT);
+            log.awaitDurable(log.append(createDeals(1, 199), APPENDED_AT));
+        }
+        assertThat(segments().size()).isGreaterThan(2);
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            // Corrupt the payload of the second record, in the first of several segments
+            file.seek(corrupt + 20);
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        // Act
+        try (IngestLog reopened = IngestLog.open(directory, SEGMENT_SIZE)) {
+            List<IngestLog.Entry> entries = reopened.read(reopened.committedPosition(), 1000);
+
+            // Assert
+            List<String> ids = entries.stream().map(entry -> entry.deal().getDealUniqueId()).toList();
+            int kept = ids.size() - 1;
+            assertThat(ids.get(0)).isEqualTo("FX0");
+            assertThat(ids.subList(1, ids.size()))
+                    .containsExactlyElementsOf(IntStream.range(200 - kept, 200).mapToObj(i -> "FX" + i).toList());
+            assertThat(kept).isBetween(1, 197);
+            assertThat(reopened.recoveredRecords()).isEqualTo(entries.size());
+        }
+    }
+
+    @Test
+    void commit_ShouldDeleteDrainedSegments() throws IOException {
+        // Arrange
+        try (IngestLog log = IngestLog.open(directory, SEGMENT_SIZE)) {
+            log.awaitDurable(log.append(createDeals(0, 200), APPENDED_AT));
+            assertThat(segments().size()).isGreaterThan(2);
+
+            // Act
+            List<IngestLog.Entry> entries = log.read(log.committedPosition(), 1000);
+            log.commit(entries.get(entries.size() - 1).nextPosition());
+
+            // Assert
+            assertThat(entries).hasSize(200);
+            assertThat(entries).extracting(entry -> entry.deal().getDealUniqueId())
+                    .containsExactlyElementsOf(IntStream.range(0, 200).mapToObj(i -> "FX" + i).toList());
+            assertThat(segments()).hasSize(1);
+            assertThat(log.read(log.committedPosition(), 10)).isEmpty();
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static List<FxDeal> createDeals(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> createDeal("FX" + i, BigDecimal.valueOf(i + 1, 2)))
+                .toList();
+    }
+
+    private static FxDeal createDeal(String dealUniqueId, BigDecimal amount) {
+        return FxDeal.builder()
+                .dealUniqueId(dealUniqueId)
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 11, 27, 10, 30, 15, 123_456_000))
+                .dealAmount(amount)
+                .build();
+    }
+}
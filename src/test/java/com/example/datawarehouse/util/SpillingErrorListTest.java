@@ -0,0 +1,86 @@
+package com.example.datawarehouse.util;
+
+import com.example.datawarehouse.dto.response.ImportSummaryResponse;
+import com.example.datawarehouse.dto.response.ImportSummaryResponse.ErrorDetail;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpillingErrorListTest {
+
+    @Test
+    void add_WhenOverLimit_ShouldSpillAndReadBackInOrder() {
+        // Arrange
+        SpillingErrorList errors = new SpillingErrorList(2);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            errors.add(ErrorDetail.builder().dealUniqueId("FX" + i).reason("Duplicate entry").build());
+        }
+        errors.add(ErrorDetail.builder()
+                .dealUniqueId(null)
+                .reason("Validation failed")
+                .index(7)
+                .details(List.of("dealAmount: Deal Amount must be positive"))
+                .build());
+
+        // Assert
+        assertThat(errors).hasSize(6);
+        assertThat(errors.spilledCount()).isEqualTo(4);
+        List<ErrorDetail> copy = new ArrayList<>(errors);
+        assertThat(copy).extracting(ErrorDetail::getDealUniqueId)
+                .containsExactly("FX0", "FX1", "FX2", "FX3", "FX4", null);
+        assertThat(copy.get(2).getIndex()).isNull();
+        assertThat(copy.get(2).getDetails()).isNull();
+        assertThat(errors.get(5).getIndex()).isEqualTo(7);
+        assertThat(errors.get(5).getDetails()).containsExactly("dealAmount: Deal Amount must be positive");
+    }
+
+    @Test
+    void close_ShouldDeleteSpillFileAndKeepInMemoryEntries() {
+        // Arrange
+        SpillingErrorList errors = new SpillingErrorList(1);
+        for (int i = 0; i < 3; i++) {
+            errors.add(ErrorDetail.builder().dealUniqueId("FX" + i).reason("Duplicate entry").build());
+        }
+        Path spillPath = errors.spillPath();
+
+        // Act
+        errors.close();
+        errors.close();
+
+        // Assert
+        assertThat(spillPath).isNotNull();
+        assertThat(Files.exists(spillPath)).isFalse();
+        assertThat(errors.get(0).getDealUniqueId()).isEqualTo("FX0");
+        assertThatThrownBy(() -> errors.get(2)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void serialize_ShouldWriteSpilledErrorsLikeAList() throws Exception {
+        // Arrange
+        ImportSummaryResponse summary = ImportSummaryResponse.withSpilledErrors(1);
+        summary.record("FX1", null);
+        summary.record("FX2", "Duplicate entry");
+        summary.recordInvalid(2, "FX3", List.of("toCurrencyIsoCode: To Currency ISO Code is required"));
+
+        // Act
+        JsonNode json = new ObjectMapper().valueToTree(summary);
+
+        // Assert
+        assertThat(json.get("imported").asInt()).isEqualTo(1);
+        assertThat(json.get("skipped").asInt()).isEqualTo(2);
+        assertThat(json.get("errors")).hasSize(2);
+        assertThat(json.get("errors").get(0).has("index")).isFalse();
+        assertThat(json.get("errors").get(1).get("dealUniqueId").asText()).isEqualTo("FX3");
+        assertThat(json.get("errors").get(1).get("index").asInt()).isEqualTo(2);
+        assertThat(json.get("errors").get(1).get("details").get(0).asText())
+                .isEqualTo("toCurrencyIsoCode: To Currency ISO Code is required");
+    }
+}
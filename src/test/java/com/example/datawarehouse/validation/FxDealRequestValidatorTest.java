@@ -0,0 +1,106 @@
+package com.example.datawarehouse.validation;
+
+import com.example.datawarehouse.dto.request.FxDealRequest;
+import com.example.datawarehouse.exception.InvalidDealException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxDealRequestValidatorTest {
+
+    private static final Validator BEAN_VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final FxDealRequestValidator validator = new FxDealRequestValidator();
+
+    static Stream<Consumer<FxDealRequest>> deals() {
+        return Stream.of(
+                deal -> { },
+                deal -> deal.setDealUniqueId(null),
+                deal -> deal.setDealUniqueId(""),
+                deal -> deal.setDealUniqueId(" \t\n"),
+                deal -> deal.setDealUniqueId("X".repeat(100)),
+                deal -> deal.setDealUniqueId("X".repeat(101)),
+                deal -> deal.setDealUniqueId(" ".repeat(101)),
+                deal -> deal.setFromCurrencyIsoCode(null),
+                deal -> deal.setFromCurrencyIsoCode(""),
+                deal -> deal.setFromCurrencyIsoCode("   "),
+                deal -> deal.setFromCurrencyIsoCode("usd"),
+                deal -> deal.setFromCurrencyIsoCode("US"),
+                deal -> deal.setFromCurrencyIsoCode("USDX"),
+                deal -> deal.setFromCurrencyIsoCode("USD\n"),
+                deal -> deal.setFromCurrencyIsoCode("ÜSD"),
+                deal -> deal.setToCurrencyIsoCode(null),
+                deal -> deal.setToCurrencyIsoCode("E1R"),
+                deal -> deal.setDealTimestamp(null),
+                deal -> deal.setDealAmount(null),
+                deal -> deal.setDealAmount(BigDecimal.ZERO),
+                deal -> deal.setDealAmount(new BigDecimal("-5")),
+                deal -> deal.setDealAmount(new BigDecimal("0.0001")),
+                deal -> deal.setDealAmount(new BigDecimal("0.00009")),
+                deal -> deal.setDealAmount(new BigDecimal("1.00000")),
+                deal -> deal.setDealAmount(new BigDecimal("999999999999999.9999")),
+                deal -> deal.setDealAmount(new BigDecimal("1000000000000000")),
+                deal -> deal.setDealAmount(new BigDecimal("1E+3")),
+                deal -> deal.setDealAmount(new BigDecimal("1E+15")),
+                deal -> {
+                    deal.setDealUniqueId(null);
+                    deal.setFromCurrencyIsoCode("eur");
+                    deal.setToCurrencyIsoCode("");
+                    deal.setDealTimestamp(null);
+                    deal.setDealAmount(new BigDecimal("-0.00001"));
+                });
+    }
+
+    @ParameterizedTest
+    @MethodSource("deals")
+    void validate_ShouldMatchBeanValidation(Consumer<FxDealRequest> mutation) {
+        // Arrange
+        FxDealRequest deal = createValidRequest();
+        mutation.accept(deal);
+
+        // Act
+        List<String> violations = validator.validate(deal);
+
+        // Assert
+        List<String> expected = BEAN_VALIDATOR.validate(deal).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+        assertThat(violations).isEqualTo(expected);
+    }
+
+    @Test
+    void validateAll_ShouldReportFirstInvalidDeal() {
+        // Arrange
+        FxDealRequest invalid = createValidRequest();
+        invalid.setDealAmount(BigDecimal.ZERO);
+
+        // Act & Assert
+        assertThatThrownBy(() -> validator.validateAll(List.of(createValidRequest(), invalid, invalid)))
+                .isInstanceOf(InvalidDealException.class)
+                .satisfies(e -> {
+                    InvalidDealException ex = (InvalidDealException) e;
+                    assertThat(ex.getIndex()).isEqualTo(1);
+                    assertThat(ex.getDetails()).containsExactly(FxDealRequestValidator.AMOUNT_NOT_POSITIVE);
+                });
+    }
+
+    private FxDealRequest createValidRequest() {
+        return FxDealRequest.builder()
+                .dealUniqueId("FX001")
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.now())
+                .dealAmount(new BigDecimal("1000.00"))
+                .build();
+    }
+}